@@ -0,0 +1,172 @@
+package com.berkay.domain.event.publisher;
+
+import com.berkay.domain.event.DomainEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Decorates a publisher with a preallocated multi producer ring buffer. Callers only claim a slot and
+// store the event, a drain thread hands events to the delegate in batches of at most maxBatchSize,
+// waiting at most maxWait for a batch to fill up. When the ring is full, callers wait up to offerTimeout
+// for free slots and then fail, nothing is claimed in that case.
+@Slf4j
+public class BatchingDomainEventPublisher<T extends DomainEvent> implements DomainEventPublisher<T>, AutoCloseable {
+
+    // Set on the claim sequence by close, so a claim either happens before close and gets drained, or fails
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = 50_000;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final DomainEventPublisher<T> delegate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long offerTimeoutNanos;
+
+    private final Object[] slots;
+    // Sequence stored in each slot once its event is written, -1 while empty
+    private final AtomicLongArray publishedSequences;
+    private final int mask;
+    // Next sequence a producer will claim, with the CLOSED bit once closed
+    private final AtomicLong claimSequence = new AtomicLong();
+    // Next sequence the drain thread will read, producers only claim slots below it plus the capacity
+    private final AtomicLong consumeSequence = new AtomicLong();
+
+    private final Thread drainThread;
+
+    public BatchingDomainEventPublisher(String name, DomainEventPublisher<T> delegate, int capacity, int maxBatchSize,
+                                        Duration maxWait, Duration offerTimeout) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.slots = new Object[capacity];
+        this.publishedSequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            publishedSequences.set(i, -1);
+        }
+        this.mask = capacity - 1;
+        this.drainThread = new Thread(this::drain, name);
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    @Override
+    public void publish(T domainEvent) {
+        write(claim(1), domainEvent);
+    }
+
+    // Claims all slots of the list at once, the list can't be larger than the ring
+    @Override
+    public void publishAll(List<T> domainEvents) {
+        if (domainEvents.isEmpty()) {
+            return;
+        }
+        long sequence = claim(domainEvents.size());
+        for (T domainEvent : domainEvents) {
+            write(sequence++, domainEvent);
+        }
+    }
+
+    // Stops accepting events and waits until the drain thread has flushed what was claimed before
+    @Override
+    public void close() {
+        claimSequence.getAndUpdate(sequence -> sequence | CLOSED);
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long claim(int count) {
+        if (count > slots.length) {
+            throw new IllegalArgumentException("Cannot publish " + count + " events at once, ring capacity is " + slots.length);
+        }
+        long deadline = 0;
+        int spins = 0;
+        while (true) {
+            long sequence = claimSequence.get();
+            if ((sequence & CLOSED) != 0) {
+                throw new IllegalStateException("Publisher is closed");
+            }
+            if (sequence + count - slots.length <= consumeSequence.get()) {
+                if (claimSequence.compareAndSet(sequence, sequence + count)) {
+                    return sequence;
+                }
+                continue;
+            }
+            // Ring is full: spin briefly, then park until the drain thread frees slots or the timeout passes
+            if (spins < SPINS_BEFORE_PARK) {
+                spins++;
+                Thread.onSpinWait();
+                continue;
+            }
+            if (deadline == 0) {
+                deadline = System.nanoTime() + offerTimeoutNanos;
+            } else if (System.nanoTime() - deadline >= 0) {
+                throw new IllegalStateException("Ring buffer is full, no slot freed within " + offerTimeoutNanos + " ns");
+            }
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    private void write(long sequence, T domainEvent) {
+        int index = (int) sequence & mask;
+        slots[index] = domainEvent;
+        publishedSequences.set(index, sequence);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        List<T> batch = new ArrayList<>(maxBatchSize);
+        long next = 0;
+        long batchStartedAt = 0;
+        while (true) {
+            int index = (int) next & mask;
+            if (batch.size() < maxBatchSize && publishedSequences.get(index) == next) {
+                if (batch.isEmpty()) {
+                    batchStartedAt = System.nanoTime();
+                }
+                batch.add((T) slots[index]);
+                slots[index] = null;
+                publishedSequences.set(index, -1);
+                consumeSequence.set(++next);
+                continue;
+            }
+            long claimed = claimSequence.get();
+            boolean closed = (claimed & CLOSED) != 0;
+            // Claimed slots are always written, so after close the drain ends once it reached the last claim
+            boolean drained = closed && next == (claimed & ~CLOSED);
+            if (!batch.isEmpty() && (batch.size() >= maxBatchSize || drained
+                    || System.nanoTime() - batchStartedAt >= maxWaitNanos)) {
+                flush(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            } else if (drained) {
+                return;
+            } else if (publishedSequences.get(index) != next) {
+                LockSupport.parkNanos(batch.isEmpty() && !closed ? IDLE_PARK_NANOS : PARK_NANOS);
+            }
+        }
+    }
+
+    // The delegate owns the list afterwards, the drain loop starts a new one
+    private void flush(List<T> batch) {
+        try {
+            delegate.publishAll(batch);
+        } catch (RuntimeException e) {
+            log.error("Could not publish batch of {} domain events", batch.size(), e);
+        }
+    }
+}
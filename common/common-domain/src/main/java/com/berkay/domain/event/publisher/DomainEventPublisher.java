@@ -2,7 +2,16 @@ package com.berkay.domain.event.publisher;
 
 import com.berkay.domain.event.DomainEvent;
 
+import java.util.List;
+
 public interface DomainEventPublisher<T extends DomainEvent> {
 
     void publish (T domainEvent);
+
+    // Publishers that can send several events at once should override this
+    default void publishAll(List<T> domainEvents) {
+        for (T domainEvent : domainEvents) {
+            publish(domainEvent);
+        }
+    }
 }
@@ -8,4 +8,9 @@ public class DomainException extends RuntimeException{
     public DomainException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    // For hot path exceptions that can skip filling the stack trace
+    protected DomainException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
 }
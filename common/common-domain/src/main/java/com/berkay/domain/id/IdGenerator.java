@@ -0,0 +1,8 @@
+package com.berkay.domain.id;
+
+import java.util.UUID;
+
+public interface IdGenerator {
+
+    UUID generate();
+}
@@ -0,0 +1,60 @@
+package com.berkay.domain.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Generates time ordered UUIDv7 values (RFC 9562): 48 bit unix millis, 12 bit counter, 62 random bits.
+// Random bits come from ThreadLocalRandom, so threads don't contend on a shared SecureRandom, and the
+// time prefix keeps inserts into B-tree indexes append friendly.
+public class UuidV7Generator implements IdGenerator {
+
+    private static final UuidV7Generator INSTANCE = new UuidV7Generator();
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    // Last issued (millis << 12 | counter). Values only grow, so ids are monotonic even if the clock
+    // steps back or more than 4096 ids are requested within one millisecond.
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    private final LongSupplier clock;
+
+    public UuidV7Generator() {
+        this(System::currentTimeMillis);
+    }
+
+    // The clock is only replaced by tests, to issue many ids within one millisecond or step the clock back
+    UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static UuidV7Generator getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public UUID generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long timestampAndCounter = nextTimestampAndCounter(random);
+        long mostSigBits = ((timestampAndCounter >>> COUNTER_BITS) << 16) | VERSION
+                | (timestampAndCounter & ((1L << COUNTER_BITS) - 1));
+        long leastSigBits = (random.nextLong() & RANDOM_MASK) | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private long nextTimestampAndCounter(ThreadLocalRandom random) {
+        // A new millisecond starts the counter at a random point in its lower half, leaving room to increment
+        long candidate = (clock.getAsLong() << COUNTER_BITS) | random.nextInt(1 << (COUNTER_BITS - 1));
+        while (true) {
+            long last = lastTimestampAndCounter.get();
+            long next = candidate > last ? candidate : last + 1;
+            if (lastTimestampAndCounter.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -1,55 +1,125 @@
 package com.berkay.domain.valueobject;
 
+import com.berkay.domain.exception.DomainException;
+
 import java.math.BigDecimal;
-import java.util.Objects;
+import java.math.RoundingMode;
+import java.util.Currency;
 
+// Money is kept as a fixed-point long in minor units (scale 2, e.g. cents), so arithmetic and comparisons
+// on the domain side don't allocate. BigDecimal is only used at the boundaries (DTO, Avro) via the
+// BigDecimal constructor and getAmount(). Amounts and results that don't fit the long throw a DomainException.
 public class Money {
-    private final BigDecimal amount;
+    public static final int SCALE = 2;
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("EUR");
+
+    private final long minorAmount;
+    private final Currency currency;
 
-    public static final Money ZERO = new Money(BigDecimal.ZERO);
+    public static final Money ZERO = new Money(0L, DEFAULT_CURRENCY);
 
     public Money(BigDecimal amount) {
-        this.amount = amount;
+        this(amount, DEFAULT_CURRENCY);
+    }
+
+    public Money(BigDecimal amount, Currency currency) {
+        this(toMinorAmount(amount), currency);
+    }
+
+    private Money(long minorAmount, Currency currency) {
+        this.minorAmount = minorAmount;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorAmount) {
+        return new Money(minorAmount, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorAmount, Currency currency) {
+        return new Money(minorAmount, currency);
     }
 
     public boolean isGreaterThanZero() {
-        return this.amount != null && this.amount.compareTo(BigDecimal.ZERO) > 0;
-        //Do not use "this.amount == 0"
+        return this.minorAmount > 0;
     }
 
     public boolean isGreaterThan(Money money) {
-        return this.amount != null && this.amount.compareTo(money.getAmount()) > 0;
+        checkSameCurrency(money);
+        return this.minorAmount > money.minorAmount;
+    }
+
+    // Allocation free equivalent of multiply(multiplier).equals(money), used on the validation path.
+    // A product that overflows can't be equal to any amount, so it is false instead of an exception.
+    public boolean isMultipleEqualTo(int multiplier, Money money) {
+        if (!currency.equals(money.currency)) {
+            return false;
+        }
+        long product = minorAmount * multiplier;
+        return Math.multiplyHigh(minorAmount, multiplier) == (product >> 63) && product == money.minorAmount;
     }
 
     public Money add(Money money) {
-        return new Money(setScale(this.amount.add(money.getAmount())));
+        checkSameCurrency(money);
+        try {
+            return new Money(Math.addExact(this.minorAmount, money.minorAmount), currency);
+        } catch (ArithmeticException e) {
+            throw new DomainException("Money overflow: " + getAmount() + " + " + money.getAmount());
+        }
     }
 
     public Money subtract(Money money) {
-        return new Money(setScale(this.amount.subtract(money.getAmount())));
+        checkSameCurrency(money);
+        try {
+            return new Money(Math.subtractExact(this.minorAmount, money.minorAmount), currency);
+        } catch (ArithmeticException e) {
+            throw new DomainException("Money overflow: " + getAmount() + " - " + money.getAmount());
+        }
     }
 
     public Money multiply(int multiplier) {
-        return new Money(setScale(this.amount.multiply(new BigDecimal(multiplier))));
+        try {
+            return new Money(Math.multiplyExact(this.minorAmount, multiplier), currency);
+        } catch (ArithmeticException e) {
+            throw new DomainException("Money overflow: " + getAmount() + " * " + multiplier);
+        }
     }
 
     public BigDecimal getAmount() {
-        return amount;
+        return BigDecimal.valueOf(minorAmount, SCALE);
+    }
+
+    public long getMinorAmount() {
+        return minorAmount;
+    }
+
+    public Currency getCurrency() {
+        return currency;
     }
 
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         Money money = (Money) o;
-        return Objects.equals(amount, money.amount);
+        return minorAmount == money.minorAmount && currency.equals(money.currency);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(amount);
+        return 31 * Long.hashCode(minorAmount) + currency.hashCode();
+    }
+
+    private void checkSameCurrency(Money money) {
+        if (!currency.equals(money.currency)) {
+            throw new DomainException("Currency mismatch: " + currency + " and " + money.currency);
+        }
     }
 
-    private BigDecimal setScale(BigDecimal amount) {
-        return amount.setScale(2, BigDecimal.ROUND_HALF_EVEN);
+    // Amounts are rounded to the money scale once, when they enter the domain
+    private static long toMinorAmount(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new DomainException("Amount is out of range: " + amount.toPlainString());
+        }
     }
 }
@@ -0,0 +1,65 @@
+package com.berkay.domain.valueobject;
+
+import com.berkay.domain.exception.DomainException;
+
+import java.util.Currency;
+
+// Mutable running total for summing many Money values without creating a Money per step.
+// Not thread safe, meant to be owned by a single validation pass and reset between uses.
+// A total that doesn't fit the long marks the accumulator overflowed instead of throwing, so the
+// validation pass can report it as a failure of that order.
+public final class MoneyAccumulator {
+    private long minorTotal;
+    private boolean overflowed;
+    private Currency currency;
+
+    public MoneyAccumulator() {
+        this(Money.DEFAULT_CURRENCY);
+    }
+
+    public MoneyAccumulator(Currency currency) {
+        this.currency = currency;
+    }
+
+    public MoneyAccumulator reset(Currency currency) {
+        this.minorTotal = 0;
+        this.overflowed = false;
+        this.currency = currency;
+        return this;
+    }
+
+    public MoneyAccumulator add(Money money) {
+        if (!currency.equals(money.getCurrency())) {
+            throw new DomainException("Currency mismatch: " + currency + " and " + money.getCurrency());
+        }
+        long sum = minorTotal + money.getMinorAmount();
+        if (((minorTotal ^ sum) & (money.getMinorAmount() ^ sum)) < 0) {
+            overflowed = true;
+        }
+        minorTotal = sum;
+        return this;
+    }
+
+    public boolean isOverflowed() {
+        return overflowed;
+    }
+
+    public boolean isEqualTo(Money money) {
+        return money != null && !overflowed && minorTotal == money.getMinorAmount() && currency.equals(money.getCurrency());
+    }
+
+    public long getMinorTotal() {
+        return minorTotal;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public Money toMoney() {
+        if (overflowed) {
+            throw new DomainException("Money overflow: accumulated total is out of range");
+        }
+        return Money.ofMinor(minorTotal, currency);
+    }
+}
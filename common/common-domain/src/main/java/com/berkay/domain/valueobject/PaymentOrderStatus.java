@@ -0,0 +1,5 @@
+package com.berkay.domain.valueobject;
+
+public enum PaymentOrderStatus {
+    PENDING, CANCELLED
+}
@@ -0,0 +1,120 @@
+package com.berkay.domain.event.publisher;
+
+import com.berkay.domain.event.DomainEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchingDomainEventPublisherTest {
+
+    @Test
+    public void testBatchesFromManyProducers() throws Exception {
+        List<List<TestEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+        int producers = 4;
+        int eventsPerProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try (BatchingDomainEventPublisher<TestEvent> publisher = new BatchingDomainEventPublisher<>("test-drain",
+                new CollectingPublisher(batches), 256, 50, Duration.ofMillis(5), Duration.ofSeconds(5))) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < eventsPerProducer; i += 2) {
+                        if (i % 4 == 0) {
+                            publisher.publish(new TestEvent(producer, i));
+                            publisher.publish(new TestEvent(producer, i + 1));
+                        } else {
+                            publisher.publishAll(List.of(new TestEvent(producer, i), new TestEvent(producer, i + 1)));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Closing flushed every event, in the order each producer published them, and no batch is too large
+        int[] nextSequence = new int[producers];
+        int total = 0;
+        for (List<TestEvent> batch : batches) {
+            assertTrue(batch.size() <= 50);
+            for (TestEvent event : batch) {
+                assertEquals(nextSequence[event.producer()]++, event.sequence());
+                total++;
+            }
+        }
+        assertEquals(producers * eventsPerProducer, total);
+    }
+
+    @Test
+    public void testPublishAfterClose() {
+        List<List<TestEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+        BatchingDomainEventPublisher<TestEvent> publisher = new BatchingDomainEventPublisher<>("test-drain",
+                new CollectingPublisher(batches), 16, 10, Duration.ofSeconds(10), Duration.ofSeconds(1));
+        publisher.publish(new TestEvent(0, 0));
+        publisher.close();
+
+        // The event claimed before close is flushed without waiting for the max wait
+        assertEquals(List.of(List.of(new TestEvent(0, 0))), batches);
+        assertThrows(IllegalStateException.class, () -> publisher.publish(new TestEvent(0, 1)));
+    }
+
+    @Test
+    public void testFullRingTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<TestEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+        DomainEventPublisher<TestEvent> blockedPublisher = event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(List.of(event));
+        };
+        try (BatchingDomainEventPublisher<TestEvent> publisher = new BatchingDomainEventPublisher<>("test-drain",
+                blockedPublisher, 4, 1, Duration.ZERO, Duration.ofMillis(100))) {
+            // One event is held by the blocked delegate, four more fill the ring
+            for (int i = 0; i < 5; i++) {
+                publisher.publish(new TestEvent(0, i));
+            }
+            long start = System.nanoTime();
+            assertThrows(IllegalStateException.class, () -> publisher.publish(new TestEvent(0, 5)));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+            assertThrows(IllegalArgumentException.class, () -> publisher.publishAll(List.of(
+                    new TestEvent(1, 0), new TestEvent(1, 1), new TestEvent(1, 2), new TestEvent(1, 3),
+                    new TestEvent(1, 4))));
+            release.countDown();
+        }
+        // The rejected events were never claimed, the accepted ones are all sent
+        assertEquals(5, batches.size());
+    }
+
+    private record TestEvent(int producer, int sequence) implements DomainEvent<Integer> {
+    }
+
+    private record CollectingPublisher(List<List<TestEvent>> batches) implements DomainEventPublisher<TestEvent> {
+
+        @Override
+        public void publish(TestEvent domainEvent) {
+            batches.add(List.of(domainEvent));
+        }
+
+        @Override
+        public void publishAll(List<TestEvent> domainEvents) {
+            batches.add(domainEvents);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.berkay.domain.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7GeneratorTest {
+
+    private static final long MILLIS = 1_700_000_000_000L;
+
+    @Test
+    public void testVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.getInstance().generate();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    public void testMonotonicWithinOneMillisecond() {
+        UuidV7Generator generator = new UuidV7Generator(() -> MILLIS);
+        // More than the 4096 counter values of a millisecond, the rest borrow the following milliseconds
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(generator.generate());
+        }
+
+        assertEquals(MILLIS, uuids.get(0).getMostSignificantBits() >>> 16);
+        for (int i = 1; i < uuids.size(); i++) {
+            assertTrue(isAfter(uuids.get(i), uuids.get(i - 1)), "id " + i + " is not after the one before");
+            assertEquals(7, uuids.get(i).version());
+            assertEquals(2, uuids.get(i).variant());
+        }
+        assertTrue((uuids.get(uuids.size() - 1).getMostSignificantBits() >>> 16) > MILLIS);
+    }
+
+    @Test
+    public void testMonotonicWhenClockStepsBack() {
+        AtomicLong millis = new AtomicLong(MILLIS);
+        UuidV7Generator generator = new UuidV7Generator(millis::get);
+        UUID first = generator.generate();
+        millis.set(MILLIS - 1_000);
+        UUID second = generator.generate();
+
+        assertTrue(isAfter(second, first));
+        assertEquals(MILLIS, second.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    public void testMonotonicAcrossThreads() throws Exception {
+        UuidV7Generator generator = new UuidV7Generator(() -> MILLIS);
+        int threads = 8;
+        int idsPerThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> uuids = new ArrayList<>(idsPerThread);
+                    for (int i = 0; i < idsPerThread; i++) {
+                        uuids.add(generator.generate());
+                    }
+                    return uuids;
+                }));
+            }
+
+            // Every thread sees its own ids in order, and no time and counter prefix is issued twice
+            Set<Long> prefixes = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> uuids = future.get();
+                for (int i = 0; i < uuids.size(); i++) {
+                    if (i > 0) {
+                        assertTrue(isAfter(uuids.get(i), uuids.get(i - 1)));
+                    }
+                    assertTrue(prefixes.add(uuids.get(i).getMostSignificantBits()));
+                }
+            }
+            assertEquals(threads * idsPerThread, prefixes.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Byte order of the UUID, as a B-tree index compares it
+    private static boolean isAfter(UUID uuid, UUID other) {
+        int mostSigBits = Long.compareUnsigned(uuid.getMostSignificantBits(), other.getMostSignificantBits());
+        return mostSigBits > 0
+                || mostSigBits == 0 && Long.compareUnsigned(uuid.getLeastSignificantBits(), other.getLeastSignificantBits()) > 0;
+    }
+}
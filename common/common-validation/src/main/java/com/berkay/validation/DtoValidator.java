@@ -0,0 +1,9 @@
+package com.berkay.validation;
+
+import java.util.List;
+
+public interface DtoValidator<T> {
+
+    // Returns the violations as "path: message", an empty list if the value is valid
+    List<String> validate(T value);
+}
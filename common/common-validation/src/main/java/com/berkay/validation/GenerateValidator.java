@@ -0,0 +1,13 @@
+package com.berkay.validation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Generates <Type>Validator next to the annotated class at compile time. It checks the jakarta constraints
+// on the fields in straight-line code and cascades into @Valid fields, or list elements, of annotated types.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface GenerateValidator {
+}
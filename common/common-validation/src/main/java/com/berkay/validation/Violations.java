@@ -0,0 +1,30 @@
+package com.berkay.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Used by generated validators. The list is only created on the first violation, a valid value doesn't allocate.
+public final class Violations {
+
+    private Violations() {
+    }
+
+    public static List<String> add(List<String> violations, String violation) {
+        if (violations == null) {
+            violations = new ArrayList<>(2);
+        }
+        violations.add(violation);
+        return violations;
+    }
+
+    public static List<String> addAll(List<String> violations, String pathPrefix, List<String> nestedViolations) {
+        for (String nestedViolation : nestedViolations) {
+            violations = add(violations, pathPrefix + nestedViolation);
+        }
+        return violations;
+    }
+
+    public static List<String> result(List<String> violations) {
+        return violations == null ? List.of() : violations;
+    }
+}
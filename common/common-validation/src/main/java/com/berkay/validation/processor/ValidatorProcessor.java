@@ -0,0 +1,358 @@
+package com.berkay.validation.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Writes a <Type>Validator for every class annotated with @GenerateValidator. Supported constraints are
+// @NotNull, @Size (strings and collections), @Min and @Max (integral numbers) and @Positive (integral numbers,
+// BigDecimal and BigInteger). Any other jakarta constraint fails the build, so no check is silently dropped.
+// As with Hibernate Validator, only fields marked @Valid are cascaded into.
+@SupportedAnnotationTypes(ValidatorProcessor.GENERATE_VALIDATOR)
+public class ValidatorProcessor extends AbstractProcessor {
+
+    static final String GENERATE_VALIDATOR = "com.berkay.validation.GenerateValidator";
+
+    private static final String CONSTRAINTS_PACKAGE = "jakarta.validation.constraints.";
+
+    private static final String VALID = "jakarta.validation.Valid";
+
+    private static final String INDENT = "        ";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS
+                        || ((TypeElement) element).getNestingKind() != NestingKind.TOP_LEVEL) {
+                    error(element, "@GenerateValidator is only supported on top level classes");
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (IOException e) {
+                    error(element, "Could not write validator: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String typeName = type.getSimpleName().toString();
+        String validatorName = typeName + "Validator";
+
+        StringBuilder body = new StringBuilder();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (!field.getModifiers().contains(Modifier.STATIC)) {
+                appendFieldChecks(body, field);
+            }
+        }
+
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(packageName + "." + validatorName, type).openWriter()) {
+            writer.write("package " + packageName + ";\n\n"
+                    + "import com.berkay.validation.DtoValidator;\n"
+                    + "import com.berkay.validation.Violations;\n\n"
+                    + "import java.util.List;\n\n"
+                    + "// Generated from the constraints on " + typeName + ", do not edit\n"
+                    + "@javax.annotation.processing.Generated(\"" + ValidatorProcessor.class.getName() + "\")\n"
+                    + "public final class " + validatorName + " implements DtoValidator<" + typeName + "> {\n\n"
+                    + "    public static final " + validatorName + " INSTANCE = new " + validatorName + "();\n\n"
+                    + "    private " + validatorName + "() {\n"
+                    + "    }\n\n"
+                    + "    @Override\n"
+                    + "    public List<String> validate(" + typeName + " value) {\n"
+                    + "        List<String> violations = null;\n"
+                    + body
+                    + "        return Violations.result(violations);\n"
+                    + "    }\n"
+                    + "}\n");
+        }
+    }
+
+    private void appendFieldChecks(StringBuilder body, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        TypeMirror fieldType = field.asType();
+        String local = name + "_";
+
+        boolean notNull = false;
+        boolean valid = false;
+        List<String> checks = new ArrayList<>();
+        for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+            String annotationName = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (annotationName.equals(VALID)) {
+                valid = true;
+                continue;
+            }
+            if (!annotationName.startsWith(CONSTRAINTS_PACKAGE)) {
+                continue;
+            }
+            String constraint = annotationName.substring(CONSTRAINTS_PACKAGE.length());
+            switch (constraint) {
+                case "NotNull" -> notNull = true;
+                case "Size" -> addCheck(checks, sizeCheck(field, local, mirror));
+                case "Min" -> addCheck(checks, boundCheck(field, local, longValue(mirror, "value"), true));
+                case "Max" -> addCheck(checks, boundCheck(field, local, longValue(mirror, "value"), false));
+                case "Positive" -> addCheck(checks, positiveCheck(field, local));
+                default -> error(field, "@" + constraint + " is not supported by the generated validator");
+            }
+        }
+        addCheck(checks, cascadeCheck(field, local, valid));
+        if (!notNull && checks.isEmpty()) {
+            return;
+        }
+
+        String accessor = (fieldType.getKind() == TypeKind.BOOLEAN ? "is" : "get")
+                + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "()";
+        body.append(INDENT).append(typeName(fieldType)).append(' ').append(local).append(" = value.").append(accessor).append(";\n");
+        if (fieldType.getKind().isPrimitive()) {
+            checks.forEach(check -> body.append(indent(check, 0)));
+            return;
+        }
+        if (notNull) {
+            body.append(INDENT).append("if (").append(local).append(" == null) {\n")
+                    .append(INDENT).append("    ").append(violation(name + ": must not be null"))
+                    .append(INDENT).append('}');
+            if (checks.isEmpty()) {
+                body.append('\n');
+                return;
+            }
+            body.append(" else {\n");
+        } else {
+            body.append(INDENT).append("if (").append(local).append(" != null) {\n");
+        }
+        checks.forEach(check -> body.append(indent(check, 1)));
+        body.append(INDENT).append("}\n");
+    }
+
+    private String sizeCheck(VariableElement field, String local, AnnotationMirror mirror) {
+        String size;
+        if (isAssignable(field.asType(), "java.lang.CharSequence")) {
+            size = local + ".length()";
+        } else if (isAssignable(field.asType(), "java.util.Collection") || isAssignable(field.asType(), "java.util.Map")) {
+            size = local + ".size()";
+        } else if (field.asType().getKind() == TypeKind.ARRAY) {
+            size = local + ".length";
+        } else {
+            error(field, "@Size is only supported on strings, collections, maps and arrays");
+            return null;
+        }
+        long min = longValue(mirror, "min");
+        long max = longValue(mirror, "max");
+        List<String> conditions = new ArrayList<>(2);
+        if (min > 0) {
+            conditions.add(size + " < " + min);
+        }
+        if (max < Integer.MAX_VALUE) {
+            conditions.add(size + " > " + max);
+        }
+        if (conditions.isEmpty()) {
+            return null;
+        }
+        return "if (" + String.join(" || ", conditions) + ") {\n"
+                + "    " + violation(field.getSimpleName() + ": size must be between " + min + " and " + max)
+                + "}\n";
+    }
+
+    private String boundCheck(VariableElement field, String local, long bound, boolean min) {
+        if (!isIntegral(field.asType())) {
+            error(field, (min ? "@Min" : "@Max") + " is only supported on integral numbers");
+            return null;
+        }
+        String message = min ? "must be greater than or equal to " + bound : "must be less than or equal to " + bound;
+        return "if (" + local + (min ? " < " : " > ") + bound + "L) {\n"
+                + "    " + violation(field.getSimpleName() + ": " + message)
+                + "}\n";
+    }
+
+    private String positiveCheck(VariableElement field, String local) {
+        String condition;
+        if (isIntegral(field.asType())) {
+            condition = local + " <= 0";
+        } else if (isAssignable(field.asType(), "java.math.BigDecimal")
+                || isAssignable(field.asType(), "java.math.BigInteger")) {
+            condition = local + ".signum() <= 0";
+        } else {
+            error(field, "@Positive is only supported on integral numbers, BigDecimal and BigInteger");
+            return null;
+        }
+        return "if (" + condition + ") {\n"
+                + "    " + violation(field.getSimpleName() + ": must be greater than 0")
+                + "}\n";
+    }
+
+    // A @Valid field of a @GenerateValidator type, or a list of one marked @Valid on the field or on the element
+    // type, is validated with that type's validator. Without @Valid the field isn't cascaded into.
+    private String cascadeCheck(VariableElement field, String local, boolean valid) {
+        TypeMirror fieldType = field.asType();
+        String name = field.getSimpleName().toString();
+        TypeMirror elementType = fieldType.getKind() == TypeKind.DECLARED
+                && ((DeclaredType) fieldType).getTypeArguments().size() == 1
+                ? ((DeclaredType) fieldType).getTypeArguments().get(0) : null;
+        boolean validElements = elementType != null && hasAnnotation(elementType.getAnnotationMirrors(), VALID);
+        if (!valid && !validElements) {
+            return null;
+        }
+        TypeElement target = valid ? validatedType(fieldType) : null;
+        if (target != null) {
+            return "violations = Violations.addAll(violations, \"" + name + ".\", "
+                    + validatorName(target) + ".INSTANCE.validate(" + local + "));\n";
+        }
+        TypeElement elementTarget = elementType == null ? null : validatedType(elementType);
+        if (elementTarget == null) {
+            error(field, "@Valid is only supported on @GenerateValidator types and lists of them");
+            return null;
+        }
+        if (!isAssignable(fieldType, "java.util.List")) {
+            error(field, "Only lists are cascaded into by the generated validator");
+            return null;
+        }
+        String element = name + "Element_";
+        String elementViolations = name + "Violations_";
+        // Element paths are only built for an element that has violations
+        return "for (int i = 0; i < " + local + ".size(); i++) {\n"
+                + "    " + typeName(elementType) + " " + element + " = " + local + ".get(i);\n"
+                + "    if (" + element + " == null) {\n"
+                + "        continue;\n"
+                + "    }\n"
+                + "    List<String> " + elementViolations + " = " + validatorName(elementTarget)
+                + ".INSTANCE.validate(" + element + ");\n"
+                + "    if (!" + elementViolations + ".isEmpty()) {\n"
+                + "        violations = Violations.addAll(violations, \"" + name + "[\" + i + \"].\", "
+                + elementViolations + ");\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    // TypeMirror.toString includes type use annotations like @NotNull, which can't go in a declaration
+    private String typeName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case DECLARED -> {
+                DeclaredType declaredType = (DeclaredType) type;
+                String name = ((TypeElement) declaredType.asElement()).getQualifiedName().toString();
+                if (declaredType.getTypeArguments().isEmpty()) {
+                    yield name;
+                }
+                List<String> arguments = new ArrayList<>();
+                declaredType.getTypeArguments().forEach(argument -> arguments.add(typeName(argument)));
+                yield name + "<" + String.join(", ", arguments) + ">";
+            }
+            case ARRAY -> typeName(((ArrayType) type).getComponentType()) + "[]";
+            case WILDCARD -> {
+                WildcardType wildcardType = (WildcardType) type;
+                if (wildcardType.getExtendsBound() != null) {
+                    yield "? extends " + typeName(wildcardType.getExtendsBound());
+                }
+                yield wildcardType.getSuperBound() != null ? "? super " + typeName(wildcardType.getSuperBound()) : "?";
+            }
+            default -> type.getKind().isPrimitive() ? type.getKind().name().toLowerCase() : type.toString();
+        };
+    }
+
+    private TypeElement validatedType(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        return hasAnnotation(element.getAnnotationMirrors(), GENERATE_VALIDATOR) ? element : null;
+    }
+
+    private static boolean hasAnnotation(List<? extends AnnotationMirror> mirrors, String annotationName) {
+        for (AnnotationMirror mirror : mirrors) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String validatorName(TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName() + "." + type.getSimpleName() + "Validator";
+    }
+
+    private boolean isIntegral(TypeMirror type) {
+        TypeMirror primitive = type;
+        if (!type.getKind().isPrimitive()) {
+            try {
+                primitive = processingEnv.getTypeUtils().unboxedType(type);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return switch (primitive.getKind()) {
+            case BYTE, SHORT, INT, LONG -> true;
+            default -> false;
+        };
+    }
+
+    private boolean isAssignable(TypeMirror type, String className) {
+        TypeElement target = processingEnv.getElementUtils().getTypeElement(className);
+        return target != null && processingEnv.getTypeUtils().isAssignable(
+                processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(target.asType()));
+    }
+
+    private long longValue(AnnotationMirror mirror, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return ((Number) entry.getValue().getValue()).longValue();
+            }
+        }
+        throw new IllegalStateException("No " + name + " on " + mirror);
+    }
+
+    private static void addCheck(List<String> checks, String check) {
+        if (check != null) {
+            checks.add(check);
+        }
+    }
+
+    private static String violation(String message) {
+        return "violations = Violations.add(violations, \"" + message.replace("\"", "\\\"") + "\");\n";
+    }
+
+    // Checks are written at method level and nested here, one level is one extra indent
+    private static String indent(String code, int level) {
+        String prefix = INDENT + "    ".repeat(level);
+        StringBuilder indented = new StringBuilder();
+        for (String line : code.split("\n")) {
+            indented.append(prefix).append(line).append('\n');
+        }
+        return indented.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,274 @@
+package com.berkay.validation.processor;
+
+import com.berkay.validation.DtoValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compiles small DTOs with the processor and runs the validators it generates
+public class ValidatorProcessorTest {
+
+    private static final String INNER = """
+            package dto;
+
+            import com.berkay.validation.GenerateValidator;
+            import jakarta.validation.constraints.NotNull;
+
+            @GenerateValidator
+            public class Inner {
+                @NotNull
+                private final String name;
+
+                public Inner(String name) {
+                    this.name = name;
+                }
+
+                public String getName() {
+                    return name;
+                }
+            }
+            """;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testConstraints() throws Exception {
+        Compilation compilation = compile("Constrained", """
+                package dto;
+
+                import com.berkay.validation.GenerateValidator;
+                import jakarta.validation.constraints.Max;
+                import jakarta.validation.constraints.Min;
+                import jakarta.validation.constraints.NotNull;
+                import jakarta.validation.constraints.Positive;
+                import jakarta.validation.constraints.Size;
+
+                import java.math.BigDecimal;
+
+                @GenerateValidator
+                public class Constrained {
+                    @NotNull
+                    @Size(min = 1, max = 3)
+                    private final String code;
+                    @Min(1)
+                    @Max(10)
+                    private final int count;
+                    @Positive
+                    private final BigDecimal amount;
+
+                    public Constrained(String code, int count, BigDecimal amount) {
+                        this.code = code;
+                        this.count = count;
+                        this.amount = amount;
+                    }
+
+                    public String getCode() {
+                        return code;
+                    }
+
+                    public int getCount() {
+                        return count;
+                    }
+
+                    public BigDecimal getAmount() {
+                        return amount;
+                    }
+                }
+                """);
+        assertEquals(List.of(), compilation.errors);
+
+        assertEquals(List.of(), compilation.validate("Constrained", "ab", 5, BigDecimal.ONE));
+        assertEquals(List.of("code: size must be between 1 and 3", "count: must be less than or equal to 10",
+                "amount: must be greater than 0"), compilation.validate("Constrained", "abcd", 11, BigDecimal.ZERO));
+        // A null without @NotNull is valid, as in Hibernate Validator
+        assertEquals(List.of("code: must not be null", "count: must be greater than or equal to 1"),
+                compilation.validate("Constrained", null, 0, null));
+    }
+
+    @Test
+    public void testCascadeOnlyWithValid() throws Exception {
+        Compilation compilation = compile("Inner", INNER, "Outer", """
+                package dto;
+
+                import com.berkay.validation.GenerateValidator;
+                import jakarta.validation.Valid;
+
+                import java.util.List;
+
+                @GenerateValidator
+                public class Outer {
+                    @Valid
+                    private final Inner valid;
+                    private final Inner plain;
+                    @Valid
+                    private final List<Inner> validList;
+                    private final List<Inner> plainList;
+                    private final List<@Valid Inner> validElements;
+
+                    public Outer(Inner valid, Inner plain, List<Inner> validList, List<Inner> plainList,
+                                 List<Inner> validElements) {
+                        this.valid = valid;
+                        this.plain = plain;
+                        this.validList = validList;
+                        this.plainList = plainList;
+                        this.validElements = validElements;
+                    }
+
+                    public Inner getValid() {
+                        return valid;
+                    }
+
+                    public Inner getPlain() {
+                        return plain;
+                    }
+
+                    public List<Inner> getValidList() {
+                        return validList;
+                    }
+
+                    public List<Inner> getPlainList() {
+                        return plainList;
+                    }
+
+                    public List<Inner> getValidElements() {
+                        return validElements;
+                    }
+                }
+                """);
+        assertEquals(List.of(), compilation.errors);
+
+        Object invalidInner = compilation.newInstance("Inner", (Object) null);
+        List<Object> invalidInners = new ArrayList<>();
+        invalidInners.add(compilation.newInstance("Inner", "valid"));
+        invalidInners.add(invalidInner);
+        invalidInners.add(null);
+        assertEquals(List.of("valid.name: must not be null", "validList[1].name: must not be null",
+                        "validElements[1].name: must not be null"),
+                compilation.validate("Outer", invalidInner, invalidInner, invalidInners, invalidInners, invalidInners));
+        assertEquals(List.of(), compilation.validate("Outer", null, null, null, null, null));
+    }
+
+    @Test
+    public void testUnsupportedConstraint() throws Exception {
+        Compilation compilation = compile("WithEmail", """
+                package dto;
+
+                import com.berkay.validation.GenerateValidator;
+                import jakarta.validation.constraints.Email;
+
+                @GenerateValidator
+                public class WithEmail {
+                    @Email
+                    private final String email;
+
+                    public WithEmail(String email) {
+                        this.email = email;
+                    }
+
+                    public String getEmail() {
+                        return email;
+                    }
+                }
+                """);
+        assertEquals(List.of("@Email is not supported by the generated validator"), compilation.errors);
+    }
+
+    @Test
+    public void testValidOnTypeWithoutValidator() throws Exception {
+        Compilation compilation = compile("WithBuilder", """
+                package dto;
+
+                import com.berkay.validation.GenerateValidator;
+                import jakarta.validation.Valid;
+
+                import java.util.List;
+
+                @GenerateValidator
+                public class WithBuilder {
+                    @Valid
+                    private final StringBuilder builder;
+                    @Valid
+                    private final List<StringBuilder> builders;
+
+                    public WithBuilder(StringBuilder builder, List<StringBuilder> builders) {
+                        this.builder = builder;
+                        this.builders = builders;
+                    }
+
+                    public StringBuilder getBuilder() {
+                        return builder;
+                    }
+
+                    public List<StringBuilder> getBuilders() {
+                        return builders;
+                    }
+                }
+                """);
+        assertEquals(List.of("@Valid is only supported on @GenerateValidator types and lists of them",
+                "@Valid is only supported on @GenerateValidator types and lists of them"), compilation.errors);
+    }
+
+    // Sources are given as pairs of simple name and code, all in package dto
+    private Compilation compile(String... namesAndSources) throws IOException {
+        Path sourceDir = Files.createDirectories(tempDir.resolve("src/dto"));
+        Path classDir = Files.createDirectories(tempDir.resolve("classes"));
+        List<File> sourceFiles = new ArrayList<>();
+        for (int i = 0; i < namesAndSources.length; i += 2) {
+            Path sourceFile = sourceDir.resolve(namesAndSources[i] + ".java");
+            Files.writeString(sourceFile, namesAndSources[i + 1]);
+            sourceFiles.add(sourceFile.toFile());
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-d", classDir.toString(), "-s", classDir.toString(),
+                            "-classpath", System.getProperty("java.class.path")),
+                    null, fileManager.getJavaFileObjectsFromFiles(sourceFiles));
+            task.setProcessors(List.of(new ValidatorProcessor()));
+            task.call();
+        }
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(Locale.ROOT));
+            }
+        }
+        return new Compilation(errors, new URLClassLoader(new URL[]{classDir.toUri().toURL()},
+                getClass().getClassLoader()));
+    }
+
+    private record Compilation(List<String> errors, ClassLoader classLoader) {
+
+        private Object newInstance(String type, Object... arguments) throws ReflectiveOperationException {
+            return classLoader.loadClass("dto." + type).getConstructors()[0].newInstance(arguments);
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<String> validate(String type, Object... arguments) throws ReflectiveOperationException {
+            DtoValidator<Object> validator = (DtoValidator<Object>) classLoader.loadClass("dto." + type + "Validator")
+                    .getField("INSTANCE").get(null);
+            return validator.validate(newInstance(type, arguments));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.berkay.outbox;
+
+import java.util.UUID;
+
+// What the relay needs from any outbox row
+public interface OutboxMessage {
+    UUID getId();
+
+    OutboxStatus getOutboxStatus();
+}
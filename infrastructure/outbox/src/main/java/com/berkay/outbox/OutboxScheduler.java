@@ -0,0 +1,5 @@
+package com.berkay.outbox;
+
+public interface OutboxScheduler {
+    void processOutboxMessage();
+}
@@ -0,0 +1,5 @@
+package com.berkay.outbox;
+
+public enum OutboxStatus {
+    STARTED, COMPLETED, FAILED
+}
@@ -0,0 +1,26 @@
+package com.berkay.order.service.domain;
+
+import com.berkay.order.service.domain.customer.CustomerIdFilter;
+import com.berkay.order.service.domain.ports.input.message.listener.customer.CustomerMessageListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class CustomerMessageListenerImpl implements CustomerMessageListener {
+
+    private final CustomerIdFilter customerIdFilter;
+
+    public CustomerMessageListenerImpl(CustomerIdFilter customerIdFilter) {
+        this.customerIdFilter = customerIdFilter;
+    }
+
+    // Keeps the customer id filter current for customers created after it was seeded
+    @Override
+    public void customerCreated(UUID customerId) {
+        customerIdFilter.register(customerId);
+        log.info("Customer with id: {} is registered", customerId);
+    }
+}
@@ -2,15 +2,23 @@ package com.berkay.order.service.domain;
 
 import com.berkay.order.service.domain.dto.create.CreateOrderCommand;
 import com.berkay.order.service.domain.dto.create.CreateOrderResponse;
+import com.berkay.order.service.domain.dto.create.CreateOrderResult;
 import com.berkay.order.service.domain.dto.track.TrackOrderQuery;
 import com.berkay.order.service.domain.dto.track.TrackOrderResponse;
+import com.berkay.order.service.domain.exception.OrderRateLimitException;
 import com.berkay.order.service.domain.ports.input.service.OrderApplicationService;
+import com.berkay.order.service.domain.ratelimit.CustomerRateLimiter;
+import com.berkay.order.service.domain.validation.OrderRequestChecker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
-@Validated
 @Service
 class OrderApplicationServiceImpl implements OrderApplicationService {
 
@@ -18,18 +26,78 @@ class OrderApplicationServiceImpl implements OrderApplicationService {
 
     private final OrderTrackCommandHandler orderTrackCommandHandler;
 
-    public OrderApplicationServiceImpl(OrderCreateCommandHandler orderCreateCommandHandler, OrderTrackCommandHandler orderTrackCommandHandler) {
+    private final OrderAsyncExecutor orderAsyncExecutor;
+
+    private final CustomerRateLimiter customerRateLimiter;
+
+    private final OrderRequestChecker orderRequestChecker;
+
+    public OrderApplicationServiceImpl(OrderCreateCommandHandler orderCreateCommandHandler,
+                                       OrderTrackCommandHandler orderTrackCommandHandler,
+                                       OrderAsyncExecutor orderAsyncExecutor,
+                                       CustomerRateLimiter customerRateLimiter,
+                                       OrderRequestChecker orderRequestChecker) {
         this.orderCreateCommandHandler = orderCreateCommandHandler;
         this.orderTrackCommandHandler = orderTrackCommandHandler;
+        this.orderAsyncExecutor = orderAsyncExecutor;
+        this.customerRateLimiter = customerRateLimiter;
+        this.orderRequestChecker = orderRequestChecker;
     }
 
     @Override
     public CreateOrderResponse createOrder(CreateOrderCommand createOrderCommand) {
+        orderRequestChecker.check(createOrderCommand);
+        customerRateLimiter.checkRateLimit(createOrderCommand.getCustomerId());
         return orderCreateCommandHandler.createOrder(createOrderCommand);
     }
 
     @Override
     public TrackOrderResponse trackOrder(TrackOrderQuery trackOrderQuery) {
+        orderRequestChecker.check(trackOrderQuery);
         return orderTrackCommandHandler.trackOrder(trackOrderQuery);
     }
+
+    @Override
+    public List<CreateOrderResult> createOrders(List<CreateOrderCommand> createOrderCommands) {
+        orderRequestChecker.checkAll(createOrderCommands);
+        // Every command is charged to its customer, a limited one is rejected in its own slot
+        CreateOrderResult[] results = new CreateOrderResult[createOrderCommands.size()];
+        List<CreateOrderCommand> admittedCommands = new ArrayList<>(createOrderCommands.size());
+        for (int i = 0; i < createOrderCommands.size(); i++) {
+            CreateOrderCommand createOrderCommand = createOrderCommands.get(i);
+            try {
+                customerRateLimiter.checkRateLimit(createOrderCommand.getCustomerId());
+                admittedCommands.add(createOrderCommand);
+            } catch (OrderRateLimitException e) {
+                results[i] = CreateOrderResult.builder()
+                        .created(false)
+                        .failureMessage(e.getMessage())
+                        .build();
+            }
+        }
+        if (admittedCommands.size() == createOrderCommands.size()) {
+            return orderCreateCommandHandler.createOrders(createOrderCommands);
+        }
+        Iterator<CreateOrderResult> admittedResults = orderCreateCommandHandler.createOrders(admittedCommands).iterator();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = admittedResults.next();
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public CompletableFuture<CreateOrderResponse> createOrderAsync(CreateOrderCommand createOrderCommand) {
+        // Checked on the caller thread, so a rejected order doesn't take an async slot
+        orderRequestChecker.check(createOrderCommand);
+        customerRateLimiter.checkRateLimit(createOrderCommand.getCustomerId());
+        return orderAsyncExecutor.submit(() -> orderCreateCommandHandler.createOrder(createOrderCommand));
+    }
+
+    @Override
+    public CompletableFuture<TrackOrderResponse> trackOrderAsync(TrackOrderQuery trackOrderQuery) {
+        orderRequestChecker.check(trackOrderQuery);
+        return orderAsyncExecutor.submit(() -> orderTrackCommandHandler.trackOrder(trackOrderQuery));
+    }
 }
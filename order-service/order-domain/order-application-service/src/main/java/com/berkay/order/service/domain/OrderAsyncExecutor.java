@@ -0,0 +1,101 @@
+package com.berkay.order.service.domain;
+
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.exception.OrderDomainException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs async order operations on a virtual thread per task when the runtime supports it (Java 21+),
+// otherwise on a fixed platform thread pool. In-flight operations are capped with a semaphore,
+// calls over the cap fail immediately instead of queueing without bound.
+// Lookups started from inside an operation use their own executor, so an operation waiting for its
+// lookups can never hold the threads the lookups need.
+@Slf4j
+@Component
+public class OrderAsyncExecutor {
+
+    private final ExecutorService executorService;
+
+    private final ExecutorService lookupExecutorService;
+
+    private final Semaphore inFlight;
+
+    public OrderAsyncExecutor(OrderServiceConfigData orderServiceConfigData) {
+        this.executorService = createExecutorService(orderServiceConfigData.getAsyncPlatformThreads(), "order-async-");
+        this.lookupExecutorService = createExecutorService(orderServiceConfigData.getLookupPlatformThreads(),
+                "order-lookup-");
+        this.inFlight = new Semaphore(orderServiceConfigData.getAsyncMaxInFlight());
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new OrderDomainException("Too many order operations in flight, please retry later!"));
+        }
+        try {
+            return CompletableFuture.supplyAsync(operation, executorService)
+                    .whenComplete((result, throwable) -> inFlight.release());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    // Cancelling a CompletableFuture doesn't reach the thread running it, so the lookup runs as its own task and
+    // cancelling the returned future interrupts that task. A blocking repository call can then give up its thread.
+    public <T> CompletableFuture<T> lookup(Supplier<T> lookup) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = lookupExecutorService.submit(() -> {
+            try {
+                result.complete(lookup.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void close() {
+        log.info("Shutting down order async executor!");
+        executorService.shutdown();
+        lookupExecutorService.shutdown();
+    }
+
+    private static ExecutorService createExecutorService(int platformThreads, String threadNamePrefix) {
+        try {
+            ExecutorService virtualThreadExecutor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            log.info("{} tasks run on virtual threads", threadNamePrefix);
+            return virtualThreadExecutor;
+        } catch (ReflectiveOperationException e) {
+            log.info("Virtual threads are not available, {} tasks run on {} platform threads",
+                    threadNamePrefix, platformThreads);
+            return Executors.newFixedThreadPool(platformThreads, daemonThreadFactory(threadNamePrefix));
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String threadNamePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.berkay.order.service.domain;
+
+import com.berkay.order.service.domain.dto.create.CreateOrderResult;
+import com.berkay.order.service.domain.event.OrderCreatedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Results of a persisted batch in command order, plus the events to publish after commit
+@Getter
+@AllArgsConstructor
+public class OrderBatchResult {
+    private final List<CreateOrderResult> results;
+    private final List<OrderCreatedEvent> orderCreatedEvents;
+}
@@ -1,13 +1,19 @@
 package com.berkay.order.service.domain;
 
+import com.berkay.domain.valueobject.RestaurantId;
+import com.berkay.order.service.domain.admission.RestaurantAdmissionController;
 import com.berkay.order.service.domain.dto.create.CreateOrderCommand;
 import com.berkay.order.service.domain.dto.create.CreateOrderResponse;
+import com.berkay.order.service.domain.dto.create.CreateOrderResult;
 import com.berkay.order.service.domain.event.OrderCreatedEvent;
 import com.berkay.order.service.domain.mapper.OrderDataMapper;
-import com.berkay.order.service.domain.ports.output.message.publisher.payment.OrderCreatedPaymentRequestMessagePublisher;
+import com.berkay.order.service.domain.timeout.SagaTimeoutScheduler;
+import com.berkay.order.service.domain.track.OrderTrackingProjection;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
 public class OrderCreateCommandHandler {
@@ -16,20 +22,56 @@ public class OrderCreateCommandHandler {
 
     private final OrderDataMapper orderDataMapper;
 
-    private final OrderCreatedPaymentRequestMessagePublisher orderCreatedPaymentRequestMessagePublisher;
+    private final OrderTrackingProjection orderTrackingProjection;
+
+    private final RestaurantAdmissionController restaurantAdmissionController;
+
+    private final SagaTimeoutScheduler sagaTimeoutScheduler;
 
     public OrderCreateCommandHandler(OrderCreateHelper orderCreateHelper,
                                      OrderDataMapper orderDataMapper,
-                                     OrderCreatedPaymentRequestMessagePublisher orderCreatedPaymentRequestMessagePublisher) {
+                                     OrderTrackingProjection orderTrackingProjection,
+                                     RestaurantAdmissionController restaurantAdmissionController,
+                                     SagaTimeoutScheduler sagaTimeoutScheduler) {
         this.orderCreateHelper = orderCreateHelper;
         this.orderDataMapper = orderDataMapper;
-        this.orderCreatedPaymentRequestMessagePublisher = orderCreatedPaymentRequestMessagePublisher;
+        this.orderTrackingProjection = orderTrackingProjection;
+        this.restaurantAdmissionController = restaurantAdmissionController;
+        this.sagaTimeoutScheduler = sagaTimeoutScheduler;
     }
 
     public CreateOrderResponse createOrder(CreateOrderCommand createOrderCommand) {
-        OrderCreatedEvent orderCreatedEvent = orderCreateHelper.persistOrder(createOrderCommand);
+        // Orders for a restaurant over its limit are rejected before they take a database connection
+        RestaurantAdmissionController.Permit permit =
+                restaurantAdmissionController.acquire(new RestaurantId(createOrderCommand.getRestaurantId()));
+        OrderCreatedEvent orderCreatedEvent;
+        try {
+            orderCreatedEvent = orderCreateHelper.validateOrder(createOrderCommand);
+            orderCreateHelper.persistOrder(orderCreatedEvent);
+        } finally {
+            permit.release();
+        }
         log.info("Order is created with id: {}", orderCreatedEvent.getOrder().getId().getValue());
-        orderCreatedPaymentRequestMessagePublisher.publish(orderCreatedEvent);
+        // persistOrder has committed here, the payment request is sent by the outbox relay
+        orderTrackingProjection.onOrderEvent(orderCreatedEvent);
+        sagaTimeoutScheduler.track(orderCreatedEvent.getOrder());
         return orderDataMapper.orderToCreateOrderResponse(orderCreatedEvent.getOrder(), "Order Created Successfully");
     }
+
+    public List<CreateOrderResult> createOrders(List<CreateOrderCommand> createOrderCommands) {
+        if (createOrderCommands.isEmpty()) {
+            return List.of();
+        }
+        OrderBatchResult orderBatchResult = orderCreateHelper.validateOrders(createOrderCommands);
+        List<OrderCreatedEvent> orderCreatedEvents = orderBatchResult.getOrderCreatedEvents();
+        if (!orderCreatedEvents.isEmpty()) {
+            orderCreateHelper.persistOrders(orderCreatedEvents);
+        }
+        log.info("{} of {} orders are created in batch", orderCreatedEvents.size(), createOrderCommands.size());
+        orderCreatedEvents.forEach(orderCreatedEvent -> {
+            orderTrackingProjection.onOrderEvent(orderCreatedEvent);
+            sagaTimeoutScheduler.track(orderCreatedEvent.getOrder());
+        });
+        return orderBatchResult.getResults();
+    }
 }
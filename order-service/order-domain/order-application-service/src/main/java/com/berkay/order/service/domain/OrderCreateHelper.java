@@ -1,21 +1,46 @@
 package com.berkay.order.service.domain;
 
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.customer.CustomerIdFilter;
+import com.berkay.domain.exception.DomainException;
+import com.berkay.domain.id.IdGenerator;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.domain.valueobject.ProductId;
+import com.berkay.domain.valueobject.RestaurantId;
 import com.berkay.order.service.domain.dto.create.CreateOrderCommand;
+import com.berkay.order.service.domain.dto.create.CreateOrderResult;
 import com.berkay.order.service.domain.entity.Customer;
 import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.entity.Product;
 import com.berkay.order.service.domain.entity.Restaurant;
 import com.berkay.order.service.domain.event.OrderCreatedEvent;
 import com.berkay.order.service.domain.exception.OrderDomainException;
 import com.berkay.order.service.domain.mapper.OrderDataMapper;
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentEventPayload;
+import com.berkay.order.service.domain.outbox.scheduler.payment.PaymentOutboxHelper;
 import com.berkay.order.service.domain.ports.output.repository.CustomerRepository;
 import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
 import com.berkay.order.service.domain.ports.output.repository.RestaurantRepository;
+import com.berkay.order.service.domain.valueobject.OrderInitiationResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Component
@@ -31,28 +56,182 @@ public class OrderCreateHelper {
 
     private final OrderDataMapper orderDataMapper;
 
+    private final OrderAsyncExecutor orderAsyncExecutor;
+
+    private final OrderServiceConfigData orderServiceConfigData;
+
+    private final CustomerIdFilter customerIdFilter;
+
+    private final PaymentOutboxHelper paymentOutboxHelper;
+
+    private final IdGenerator idGenerator;
+
     // this is a constructor injection
     public OrderCreateHelper(OrderDomainService orderDomainService,
                              OrderRepository orderRepository,
                              CustomerRepository customerRepository,
                              RestaurantRepository restaurantRepository,
-                             OrderDataMapper orderDataMapper) {
+                             OrderDataMapper orderDataMapper,
+                             OrderAsyncExecutor orderAsyncExecutor,
+                             OrderServiceConfigData orderServiceConfigData,
+                             CustomerIdFilter customerIdFilter,
+                             PaymentOutboxHelper paymentOutboxHelper,
+                             IdGenerator idGenerator) {
         this.orderDomainService = orderDomainService;
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
         this.restaurantRepository = restaurantRepository;
         this.orderDataMapper = orderDataMapper;
+        this.orderAsyncExecutor = orderAsyncExecutor;
+        this.orderServiceConfigData = orderServiceConfigData;
+        this.customerIdFilter = customerIdFilter;
+        this.paymentOutboxHelper = paymentOutboxHelper;
+        this.idGenerator = idGenerator;
+    }
+
+    // Lookups and validation run outside of any transaction, only persistOrder holds a connection for the write.
+    // Callers call both from outside, a call from within this class would skip the transaction proxy.
+    public OrderCreatedEvent validateOrder(CreateOrderCommand createOrderCommand) {
+        Restaurant restaurant = checkCustomerAndRestaurant(createOrderCommand);
+        Order order = toOrder(createOrderCommand);
+        return orderDomainService.validateAndInitiateOrder(order, restaurant);
     }
 
+    // The payment request goes to the outbox in the same transaction, the outbox relay sends it
     @Transactional
-    public OrderCreatedEvent persistOrder(CreateOrderCommand createOrderCommand) {
-        checkCustomer(createOrderCommand.getCustomerId());
-        Restaurant restaurant = checkRestaurant(createOrderCommand);
-        Order order = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
-        OrderCreatedEvent orderCreatedEvent = orderDomainService.validateAndInitiateOrder(order, restaurant);
-        Order orderResult = saveOrder(order);
-        log.info("Order is created with id: {}", orderCreatedEvent.getOrder().getId().getValue());
-        return orderCreatedEvent;
+    public Order persistOrder(OrderCreatedEvent orderCreatedEvent) {
+        Order orderResult = saveOrder(orderCreatedEvent.getOrder());
+        paymentOutboxHelper.saveOutboxMessage(
+                orderDataMapper.orderCreatedEventToOrderPaymentEventPayload(orderCreatedEvent),
+                orderCreatedEvent.getOrder().getOrderStatus(),
+                idGenerator.generate());
+        return orderResult;
+    }
+
+    // Customers and restaurants are looked up once per distinct id, a restaurant is asked for the products
+    // of all orders to it together. Nothing is saved here, see persistOrders.
+    public OrderBatchResult validateOrders(List<CreateOrderCommand> createOrderCommands) {
+        Map<UUID, CompletableFuture<Boolean>> customerLookups = new HashMap<>();
+        Map<UUID, Set<UUID>> productIdsByRestaurant = new LinkedHashMap<>();
+        for (CreateOrderCommand createOrderCommand : createOrderCommands) {
+            customerLookups.computeIfAbsent(createOrderCommand.getCustomerId(),
+                    customerId -> orderAsyncExecutor.lookup(() -> customerExists(customerId)));
+            Set<UUID> productIds = productIdsByRestaurant.computeIfAbsent(createOrderCommand.getRestaurantId(),
+                    restaurantId -> new LinkedHashSet<>());
+            createOrderCommand.getItems().forEach(orderItem -> productIds.add(orderItem.getProductId()));
+        }
+        Map<UUID, CompletableFuture<Optional<Restaurant>>> restaurantLookups = new HashMap<>();
+        productIdsByRestaurant.forEach((restaurantId, productIds) -> restaurantLookups.put(restaurantId,
+                orderAsyncExecutor.lookup(() -> findRestaurant(restaurantId, productIds))));
+
+        List<CompletableFuture<?>> lookups = new ArrayList<>(customerLookups.values());
+        lookups.addAll(restaurantLookups.values());
+        awaitLookups(lookups);
+
+        // Missing restaurants are rejected by the domain service
+        Map<RestaurantId, Restaurant> restaurants = new HashMap<>();
+        restaurantLookups.forEach((restaurantId, lookup) -> lookup.join()
+                .ifPresent(restaurant -> restaurants.put(new RestaurantId(restaurantId), restaurant)));
+
+        CreateOrderResult[] results = new CreateOrderResult[createOrderCommands.size()];
+        List<Order> orders = new ArrayList<>(createOrderCommands.size());
+        int[] positions = new int[createOrderCommands.size()];
+        for (int i = 0; i < createOrderCommands.size(); i++) {
+            CreateOrderCommand createOrderCommand = createOrderCommands.get(i);
+            if (!customerLookups.get(createOrderCommand.getCustomerId()).join()) {
+                results[i] = rejected("Could not find customer with id: " + createOrderCommand.getCustomerId());
+                continue;
+            }
+            try {
+                Order order = toOrder(createOrderCommand);
+                positions[orders.size()] = i;
+                orders.add(order);
+            } catch (OrderDomainException e) {
+                results[i] = rejected(e.getMessage());
+            }
+        }
+
+        List<OrderInitiationResult> initiationResults = orderDomainService.validateAndInitiateOrders(orders, restaurants);
+        List<OrderCreatedEvent> orderCreatedEvents = new ArrayList<>(orders.size());
+        for (int i = 0; i < initiationResults.size(); i++) {
+            OrderInitiationResult initiationResult = initiationResults.get(i);
+            if (initiationResult.isInitiated()) {
+                orderCreatedEvents.add(initiationResult.getOrderCreatedEvent());
+                results[positions[i]] = CreateOrderResult.builder()
+                        .created(true)
+                        .createOrderResponse(orderDataMapper.orderToCreateOrderResponse(initiationResult.getOrder(),
+                                "Order Created Successfully"))
+                        .build();
+            } else {
+                results[positions[i]] = rejected(initiationResult.getRejectionReason());
+            }
+        }
+        return new OrderBatchResult(Arrays.asList(results), orderCreatedEvents);
+    }
+
+    // All created orders of a batch and their payment requests are saved in one transaction
+    @Transactional
+    public void persistOrders(List<OrderCreatedEvent> orderCreatedEvents) {
+        List<Order> orders = new ArrayList<>(orderCreatedEvents.size());
+        List<OrderPaymentEventPayload> orderPaymentEventPayloads = new ArrayList<>(orderCreatedEvents.size());
+        List<UUID> sagaIds = new ArrayList<>(orderCreatedEvents.size());
+        for (OrderCreatedEvent orderCreatedEvent : orderCreatedEvents) {
+            orders.add(orderCreatedEvent.getOrder());
+            orderPaymentEventPayloads.add(orderDataMapper.orderCreatedEventToOrderPaymentEventPayload(orderCreatedEvent));
+            sagaIds.add(idGenerator.generate());
+        }
+        saveOrders(orders);
+        paymentOutboxHelper.saveOutboxMessages(orderPaymentEventPayloads, OrderStatus.PENDING, sagaIds);
+    }
+
+    // Customer and restaurant lookups are independent, so they run in parallel under one deadline.
+    // The first failing lookup fails the order without waiting for the other one.
+    private Restaurant checkCustomerAndRestaurant(CreateOrderCommand createOrderCommand) {
+        CompletableFuture<Void> customerLookup = orderAsyncExecutor.lookup(() -> {
+            checkCustomer(createOrderCommand.getCustomerId());
+            return null;
+        });
+        CompletableFuture<Restaurant> restaurantLookup = orderAsyncExecutor.lookup(() -> checkRestaurant(createOrderCommand));
+        awaitLookups(List.of(customerLookup, restaurantLookup));
+        return restaurantLookup.join();
+    }
+
+    // Waits for all lookups under the lookup deadline, the first failure is thrown right away. Lookups still running
+    // after a failure or the deadline are cancelled, which interrupts them.
+    private void awaitLookups(List<? extends CompletableFuture<?>> lookups) {
+        CompletableFuture<Void> allLookups = new CompletableFuture<>();
+        lookups.forEach(lookup -> lookup.whenComplete((result, throwable) -> failFast(allLookups, throwable)));
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture<?>[0])).thenRun(() -> allLookups.complete(null));
+
+        try {
+            allLookups.get(orderServiceConfigData.getLookupTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            lookups.forEach(lookup -> lookup.cancel(true));
+            throw unwrapLookupFailure(e);
+        } catch (TimeoutException e) {
+            lookups.forEach(lookup -> lookup.cancel(true));
+            log.warn("{} customer and restaurant lookups timed out", lookups.size());
+            throw new OrderDomainException("Customer and restaurant lookups timed out!");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderDomainException("Interrupted while looking up customer and restaurant!", e);
+        }
+    }
+
+    private void failFast(CompletableFuture<Void> allLookups, Throwable throwable) {
+        if (throwable != null) {
+            allLookups.completeExceptionally(throwable);
+        }
+    }
+
+    private RuntimeException unwrapLookupFailure(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof RuntimeException runtimeException
+                ? runtimeException
+                : new OrderDomainException("Customer and restaurant lookups failed!", cause);
     }
 
     private Restaurant checkRestaurant(CreateOrderCommand createOrderCommand) {
@@ -65,12 +244,65 @@ public class OrderCreateHelper {
         return optionalRestaurant.get();
     }
 
+    private Optional<Restaurant> findRestaurant(UUID restaurantId, Set<UUID> productIds) {
+        List<Product> products = new ArrayList<>(productIds.size());
+        productIds.forEach(productId -> products.add(new Product(new ProductId(productId))));
+        return restaurantRepository.findRestaurantInformation(Restaurant.builder()
+                .restaurantId(new RestaurantId(restaurantId))
+                .products(products)
+                .build());
+    }
+
     private void checkCustomer(UUID customerId) {
+        if (!customerExists(customerId)) {
+            throw new OrderDomainException("Could not find customer with id: " + customerId);
+        }
+    }
+
+    private boolean customerExists(UUID customerId) {
+        if (!customerIdFilter.mightExist(customerId)) {
+            log.warn("Could not find customer with id: {}", customerId);
+            return false;
+        }
         Optional<Customer> customer = customerRepository.findCustomer(customerId);
         if (customer.isEmpty()) {
+            customerIdFilter.recordNotFound(customerId);
             log.warn("Could not find customer with id: {}", customerId);
-            throw new OrderDomainException("Could not find customer with id: " + customerId);
+            return false;
         }
+        customerIdFilter.recordFound(customerId);
+        return true;
+    }
+
+    // Client amounts that don't fit Money are a rejection of this order, not an unexpected error
+    private Order toOrder(CreateOrderCommand createOrderCommand) {
+        try {
+            return orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        } catch (OrderDomainException e) {
+            throw e;
+        } catch (DomainException e) {
+            log.warn("Order of customer with id: {} is not valid: {}", createOrderCommand.getCustomerId(), e.getMessage());
+            throw new OrderDomainException(e.getMessage(), e);
+        }
+    }
+
+    private CreateOrderResult rejected(String failureMessage) {
+        return CreateOrderResult.builder()
+                .created(false)
+                .failureMessage(failureMessage)
+                .build();
+    }
+
+    private void saveOrders(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        if (savedOrders == null || savedOrders.size() != orders.size()) {
+            log.error("Orders could not be saved!");
+            throw new OrderDomainException("Orders could not be saved!");
+        }
+        log.info("{} orders are saved in batch", savedOrders.size());
     }
 
     private Order saveOrder(Order order) {
@@ -79,9 +311,7 @@ public class OrderCreateHelper {
             log.error("Order could not be saved!");
             throw new OrderDomainException("Order could not be saved!");
         }
-        log.info("Order is created with id: {}", orderResult.getId().getValue());
+        log.info("Order is saved with id: {}", orderResult.getId().getValue());
         return orderResult;
     }
-
-
 }
@@ -5,11 +5,12 @@ import com.berkay.order.service.domain.dto.track.TrackOrderResponse;
 import com.berkay.order.service.domain.entity.Order;
 import com.berkay.order.service.domain.exception.OrderNotFoundException;
 import com.berkay.order.service.domain.mapper.OrderDataMapper;
-import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
+import com.berkay.order.service.domain.track.OrderLookupCoalescer;
+import com.berkay.order.service.domain.track.OrderTrackingProjection;
+import com.berkay.order.service.domain.track.OrderTrackingView;
 import com.berkay.order.service.domain.valueobject.TrackingId;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -19,22 +20,37 @@ public class OrderTrackCommandHandler {
 
     private final OrderDataMapper orderDataMapper;
 
-    private final OrderRepository orderRepository;
+    private final OrderTrackHelper orderTrackHelper;
 
-    public OrderTrackCommandHandler(OrderDataMapper orderDataMapper, OrderRepository orderRepository) {
+    private final OrderTrackingProjection orderTrackingProjection;
+
+    private final OrderLookupCoalescer orderLookupCoalescer;
+
+    public OrderTrackCommandHandler(OrderDataMapper orderDataMapper,
+                                    OrderTrackHelper orderTrackHelper,
+                                    OrderTrackingProjection orderTrackingProjection,
+                                    OrderLookupCoalescer orderLookupCoalescer) {
         this.orderDataMapper = orderDataMapper;
-        this.orderRepository = orderRepository;
+        this.orderTrackHelper = orderTrackHelper;
+        this.orderTrackingProjection = orderTrackingProjection;
+        this.orderLookupCoalescer = orderLookupCoalescer;
     }
 
-    @Transactional(readOnly = true)
     TrackOrderResponse trackOrder (TrackOrderQuery trackOrderQuery) {
-        Optional<Order> orderResult =
-                orderRepository.findByTrackingId(new TrackingId(trackOrderQuery.getOrderTrackingId()));
+        TrackingId trackingId = new TrackingId(trackOrderQuery.getOrderTrackingId());
+        Optional<OrderTrackingView> trackingView = orderTrackingProjection.find(trackingId);
+        if (trackingView.isPresent()) {
+            return orderDataMapper.orderTrackingViewToTrackOrderResponse(trackingView.get());
+        }
 
+        // Concurrent misses for the same order share one repository read
+        Optional<Order> orderResult =
+                orderLookupCoalescer.findOrder(trackingId, () -> orderTrackHelper.findOrder(trackingId));
         if (orderResult.isEmpty()) {
             log.warn("Could not find order with tracking id: {}", trackOrderQuery.getOrderTrackingId());
             throw new OrderNotFoundException("Could not find order with tracking id: " + trackOrderQuery.getOrderTrackingId());
         }
+        orderTrackingProjection.fill(orderResult.get());
         return orderDataMapper.orderToTrackOrderResponse(orderResult.get());
     }
 }
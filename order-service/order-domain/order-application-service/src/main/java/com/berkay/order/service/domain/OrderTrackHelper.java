@@ -0,0 +1,27 @@
+package com.berkay.order.service.domain;
+
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
+import com.berkay.order.service.domain.valueobject.TrackingId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class OrderTrackHelper {
+
+    private final OrderRepository orderRepository;
+
+    public OrderTrackHelper(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    // Only called when the tracking projection misses
+    @Transactional(readOnly = true)
+    public Optional<Order> findOrder(TrackingId trackingId) {
+        return orderRepository.findByTrackingId(trackingId);
+    }
+}
@@ -1,22 +1,37 @@
 package com.berkay.order.service.domain;
 
 import com.berkay.order.service.domain.dto.message.PaymentResponse;
+import com.berkay.order.service.domain.payment.PaymentResponseDispatcher;
 import com.berkay.order.service.domain.ports.input.message.listener.payment.PaymentResponseMessageListener;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Validated
 @Service
 public class PaymentResponseMessageListenerImpl implements PaymentResponseMessageListener {
-    @Override
-    public void paymentCompleted(PaymentResponse paymentResponse) {
 
+    private final PaymentResponseDispatcher paymentResponseDispatcher;
+
+    public PaymentResponseMessageListenerImpl(PaymentResponseDispatcher paymentResponseDispatcher) {
+        this.paymentResponseDispatcher = paymentResponseDispatcher;
     }
 
+    // Both kinds go to the worker of the order, so a completion and a cancellation of one order keep their order
     @Override
-    public void paymentCancelled(PaymentResponse paymentResponse) {
+    public CompletableFuture<Void> paymentCompleted(PaymentResponse paymentResponse) {
+        CompletableFuture<Void> processed = paymentResponseDispatcher.dispatch(paymentResponse);
+        log.info("Payment completed response is queued for order with id: {}", paymentResponse.getOrderId());
+        return processed;
+    }
 
+    @Override
+    public CompletableFuture<Void> paymentCancelled(PaymentResponse paymentResponse) {
+        CompletableFuture<Void> processed = paymentResponseDispatcher.dispatch(paymentResponse);
+        log.info("Payment cancelled response is queued for order with id: {}", paymentResponse.getOrderId());
+        return processed;
     }
 }
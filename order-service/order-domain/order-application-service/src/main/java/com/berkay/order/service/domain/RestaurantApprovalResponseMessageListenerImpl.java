@@ -1,22 +1,36 @@
 package com.berkay.order.service.domain;
 
+import com.berkay.order.service.domain.approval.RestaurantApprovalResponsePipeline;
 import com.berkay.order.service.domain.dto.message.RestaurantAprovalResponse;
 import com.berkay.order.service.domain.ports.input.message.listener.restaurantapproval.RestaurantApprovalResponseMessageListener;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Validated
 @Service
 public class RestaurantApprovalResponseMessageListenerImpl implements RestaurantApprovalResponseMessageListener {
-    @Override
-    public void orderApproved(RestaurantAprovalResponse restaurantAprovalResponse) {
 
+    private final RestaurantApprovalResponsePipeline restaurantApprovalResponsePipeline;
+
+    public RestaurantApprovalResponseMessageListenerImpl(RestaurantApprovalResponsePipeline restaurantApprovalResponsePipeline) {
+        this.restaurantApprovalResponsePipeline = restaurantApprovalResponsePipeline;
     }
 
     @Override
-    public void orderRejected(RestaurantAprovalResponse restaurantAprovalResponse) {
+    public CompletableFuture<Void> orderApproved(RestaurantAprovalResponse restaurantAprovalResponse) {
+        CompletableFuture<Void> processed = restaurantApprovalResponsePipeline.submit(restaurantAprovalResponse);
+        log.info("Order approved response is queued for order with id: {}", restaurantAprovalResponse.getOrderId());
+        return processed;
+    }
 
+    @Override
+    public CompletableFuture<Void> orderRejected(RestaurantAprovalResponse restaurantAprovalResponse) {
+        CompletableFuture<Void> processed = restaurantApprovalResponsePipeline.submit(restaurantAprovalResponse);
+        log.info("Order rejected response is queued for order with id: {}", restaurantAprovalResponse.getOrderId());
+        return processed;
     }
 }
@@ -0,0 +1,29 @@
+package com.berkay.order.service.domain;
+
+import com.berkay.domain.valueobject.RestaurantId;
+import com.berkay.order.service.domain.ports.input.message.listener.restaurant.RestaurantMessageListener;
+import com.berkay.order.service.domain.restaurant.CachingRestaurantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class RestaurantMessageListenerImpl implements RestaurantMessageListener {
+
+    // Only present when the restaurant cache is enabled
+    private final Optional<CachingRestaurantRepository> cachingRestaurantRepository;
+
+    public RestaurantMessageListenerImpl(Optional<CachingRestaurantRepository> cachingRestaurantRepository) {
+        this.cachingRestaurantRepository = cachingRestaurantRepository;
+    }
+
+    // The next order of the restaurant loads its menu again, so it never validates against the old prices
+    @Override
+    public void restaurantMenuChanged(UUID restaurantId) {
+        cachingRestaurantRepository.ifPresent(repository -> repository.invalidate(new RestaurantId(restaurantId)));
+        log.info("Menu of restaurant with id: {} changed", restaurantId);
+    }
+}
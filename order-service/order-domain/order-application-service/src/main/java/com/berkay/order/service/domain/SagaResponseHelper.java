@@ -0,0 +1,52 @@
+package com.berkay.order.service.domain;
+
+import com.berkay.domain.valueobject.OrderId;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.exception.OrderDomainException;
+import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
+import com.berkay.order.service.domain.valueobject.OrderTransition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Shared by the payment and restaurant approval response helpers, which apply their responses in batches
+@Slf4j
+@Component
+public class SagaResponseHelper {
+
+    private final OrderRepository orderRepository;
+
+    public SagaResponseHelper(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    // A response that doesn't fit the order's status (e.g. a redelivery) is skipped
+    public boolean isApplicable(OrderTransition transition, Order order, String responseName) {
+        if (transition.isAllowedFrom(order.getOrderStatus())) {
+            return true;
+        }
+        log.warn("{} for transition: {} is skipped for order with id: {} in status: {}",
+                responseName, transition, order.getId().getValue(), order.getOrderStatus());
+        return false;
+    }
+
+    // An order changed since it was loaded (e.g. cancelled by a saga timeout) fails the batch, the responses are
+    // applied again one by one against the current status
+    public void saveUnchanged(List<Order> orders, Map<OrderId, OrderStatus> loadedStatuses) {
+        List<OrderStatus> expectedStatuses = new ArrayList<>(orders.size());
+        orders.forEach(order -> expectedStatuses.add(loadedStatuses.get(order.getId())));
+        List<Order> savedOrders = orderRepository.saveAllIfStatus(orders, expectedStatuses);
+        if (savedOrders == null) {
+            log.error("Orders could not be saved!");
+            throw new OrderDomainException("Orders could not be saved!");
+        }
+        if (savedOrders.size() != orders.size()) {
+            log.warn("{} of {} orders were changed concurrently", orders.size() - savedOrders.size(), orders.size());
+            throw new OrderDomainException("Orders were changed concurrently!");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.berkay.order.service.domain.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Additive increase, multiplicative decrease concurrency limit. A request that completes under the latency
+// threshold while the limit is in use grows the limit by one, a slow one shrinks it by the backoff ratio.
+class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void release(long latencyNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightBeforeRelease * 2 >= limit) {
+                // Only grow when the limit was actually the constraint
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
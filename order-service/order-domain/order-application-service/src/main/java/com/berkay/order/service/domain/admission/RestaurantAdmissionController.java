@@ -0,0 +1,88 @@
+package com.berkay.order.service.domain.admission;
+
+import com.berkay.domain.valueobject.RestaurantId;
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.exception.OrderOverloadException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Adaptive admission control per restaurant. Every restaurant gets its own AIMD concurrency limit, adapted to
+// the observed order creation latency, so a restaurant flooded with orders is shed early instead of holding
+// the database connections every other restaurant needs. Limits of idle restaurants are dropped.
+@Slf4j
+@Component
+public class RestaurantAdmissionController {
+
+    private static final Permit NO_OP_PERMIT = new Permit(null);
+
+    private final OrderServiceConfigData orderServiceConfigData;
+
+    private final Cache<UUID, AimdLimit> limits;
+
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    public RestaurantAdmissionController(OrderServiceConfigData orderServiceConfigData) {
+        this.orderServiceConfigData = orderServiceConfigData;
+        this.limits = Caffeine.newBuilder()
+                .maximumSize(orderServiceConfigData.getRestaurantAdmissionMaxRestaurants())
+                .expireAfterAccess(Duration.ofMillis(orderServiceConfigData.getRestaurantAdmissionIdleExpiryMs()))
+                .build();
+    }
+
+    // Throws OrderOverloadException if the restaurant is at its limit, the permit must be released once done
+    public Permit acquire(RestaurantId restaurantId) {
+        if (!orderServiceConfigData.getRestaurantAdmissionEnabled()) {
+            return NO_OP_PERMIT;
+        }
+        AimdLimit limit = limits.get(restaurantId.getValue(), id -> newLimit());
+        if (!limit.tryAcquire()) {
+            rejectedRequests.increment();
+            log.warn("Order for restaurant with id: {} is rejected, concurrency limit {} is reached",
+                    restaurantId.getValue(), limit.getLimit());
+            throw new OrderOverloadException("Too many orders for restaurant " + restaurantId.getValue() +
+                    " right now, please retry later!");
+        }
+        return new Permit(limit);
+    }
+
+    public long getRejectedRequestCount() {
+        return rejectedRequests.sum();
+    }
+
+    // -1 if the restaurant has no limit yet
+    public int getLimit(RestaurantId restaurantId) {
+        AimdLimit limit = limits.getIfPresent(restaurantId.getValue());
+        return limit == null ? -1 : limit.getLimit();
+    }
+
+    private AimdLimit newLimit() {
+        return new AimdLimit(orderServiceConfigData.getRestaurantAdmissionInitialLimit(),
+                orderServiceConfigData.getRestaurantAdmissionMinLimit(),
+                orderServiceConfigData.getRestaurantAdmissionMaxLimit(),
+                TimeUnit.MILLISECONDS.toNanos(orderServiceConfigData.getRestaurantAdmissionLatencyThresholdMs()),
+                orderServiceConfigData.getRestaurantAdmissionBackoffRatio());
+    }
+
+    public static final class Permit {
+        private final AimdLimit limit;
+        private final long startNanos;
+
+        private Permit(AimdLimit limit) {
+            this.limit = limit;
+            this.startNanos = limit == null ? 0 : System.nanoTime();
+        }
+
+        public void release() {
+            if (limit != null) {
+                limit.release(System.nanoTime() - startNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.berkay.order.service.domain.approval;
+
+import com.berkay.domain.valueobject.OrderId;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+// Restaurant approval response with its ids parsed, as the apply stage works with it
+@Getter
+@AllArgsConstructor
+public class DecodedApprovalResponse {
+    private final OrderId orderId;
+    private final UUID sagaId;
+    private final boolean approved;
+    private final List<String> failureMessages;
+}
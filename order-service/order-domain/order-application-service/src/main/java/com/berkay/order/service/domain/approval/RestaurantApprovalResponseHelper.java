@@ -0,0 +1,102 @@
+package com.berkay.order.service.domain.approval;
+
+import com.berkay.domain.valueobject.OrderId;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.order.service.domain.OrderDomainService;
+import com.berkay.order.service.domain.SagaResponseHelper;
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.event.OrderCancelledEvent;
+import com.berkay.order.service.domain.exception.OrderNotFoundException;
+import com.berkay.order.service.domain.mapper.OrderDataMapper;
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentEventPayload;
+import com.berkay.order.service.domain.outbox.scheduler.payment.PaymentOutboxHelper;
+import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
+import com.berkay.order.service.domain.valueobject.OrderTransition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class RestaurantApprovalResponseHelper {
+
+    private static final String APPROVAL_RESPONSE = "Restaurant approval response";
+
+    private final OrderDomainService orderDomainService;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderDataMapper orderDataMapper;
+
+    private final PaymentOutboxHelper paymentOutboxHelper;
+
+    private final SagaResponseHelper sagaResponseHelper;
+
+    public RestaurantApprovalResponseHelper(OrderDomainService orderDomainService,
+                                            OrderRepository orderRepository,
+                                            OrderDataMapper orderDataMapper,
+                                            PaymentOutboxHelper paymentOutboxHelper,
+                                            SagaResponseHelper sagaResponseHelper) {
+        this.orderDomainService = orderDomainService;
+        this.orderRepository = orderRepository;
+        this.orderDataMapper = orderDataMapper;
+        this.paymentOutboxHelper = paymentOutboxHelper;
+        this.sagaResponseHelper = sagaResponseHelper;
+    }
+
+    // Applies a batch of approval responses in one transaction with one write for the orders and one for the
+    // payment cancel requests. A response that doesn't fit the order's status is skipped. Returns the changed orders.
+    @Transactional
+    public List<Order> applyApprovalResponses(List<DecodedApprovalResponse> approvalResponses) {
+        Set<OrderId> orderIds = new LinkedHashSet<>();
+        approvalResponses.forEach(approvalResponse -> orderIds.add(approvalResponse.getOrderId()));
+        Map<OrderId, Order> orders = new HashMap<>();
+        orderRepository.findByIds(orderIds).forEach(order -> orders.put(order.getId(), order));
+
+        Map<OrderId, Order> changedOrders = new LinkedHashMap<>();
+        Map<OrderId, OrderStatus> loadedStatuses = new HashMap<>();
+        List<OrderPaymentEventPayload> orderPaymentEventPayloads = new ArrayList<>();
+        List<UUID> sagaIds = new ArrayList<>();
+        for (DecodedApprovalResponse approvalResponse : approvalResponses) {
+            Order order = orders.get(approvalResponse.getOrderId());
+            if (order == null) {
+                log.error("Could not find order with id: {}", approvalResponse.getOrderId().getValue());
+                throw new OrderNotFoundException("Could not find order with id: " + approvalResponse.getOrderId().getValue());
+            }
+            loadedStatuses.putIfAbsent(order.getId(), order.getOrderStatus());
+            if (approvalResponse.isApproved()) {
+                if (!sagaResponseHelper.isApplicable(OrderTransition.APPROVE, order, APPROVAL_RESPONSE)) {
+                    continue;
+                }
+                orderDomainService.approveOrder(order);
+            } else {
+                if (!sagaResponseHelper.isApplicable(OrderTransition.INIT_CANCEL, order, APPROVAL_RESPONSE)) {
+                    continue;
+                }
+                OrderCancelledEvent orderCancelledEvent =
+                        orderDomainService.cancelOrderPayment(order, approvalResponse.getFailureMessages());
+                orderPaymentEventPayloads.add(orderDataMapper.orderCancelledEventToOrderPaymentEventPayload(orderCancelledEvent));
+                sagaIds.add(approvalResponse.getSagaId());
+            }
+            changedOrders.put(order.getId(), order);
+        }
+
+        if (!changedOrders.isEmpty()) {
+            sagaResponseHelper.saveUnchanged(new ArrayList<>(changedOrders.values()), loadedStatuses);
+        }
+        if (!orderPaymentEventPayloads.isEmpty()) {
+            paymentOutboxHelper.saveOutboxMessages(orderPaymentEventPayloads, OrderStatus.CANCELLING, sagaIds);
+        }
+        log.info("{} of {} restaurant approval responses are applied", changedOrders.size(), approvalResponses.size());
+        return new ArrayList<>(changedOrders.values());
+    }
+}
@@ -0,0 +1,266 @@
+package com.berkay.order.service.domain.approval;
+
+import com.berkay.domain.valueobject.OrderApprovalStatus;
+import com.berkay.domain.valueobject.OrderId;
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.dto.message.RestaurantAprovalResponse;
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.exception.OrderDomainException;
+import com.berkay.order.service.domain.timeout.SagaTimeoutScheduler;
+import com.berkay.order.service.domain.track.OrderTrackingProjection;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// Restaurant approval responses go through four stages, each on its own thread and connected by bounded
+// queues: decode parses the ids, group collects a micro batch and groups it by order, apply runs the batch
+// in one transaction with one write, complete updates the tracking projection and completes the futures.
+// A full queue blocks the stage in front of it, so a burst pushes back on the consumer instead of piling up.
+@Slf4j
+@Component
+public class RestaurantApprovalResponsePipeline {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final RestaurantApprovalResponseHelper restaurantApprovalResponseHelper;
+
+    private final OrderTrackingProjection orderTrackingProjection;
+
+    private final SagaTimeoutScheduler sagaTimeoutScheduler;
+
+    private final int maxBatchSize;
+
+    private final long maxBatchWaitNanos;
+
+    private final Stage<PendingApproval> decodeStage;
+    private final Stage<PendingApproval> groupStage;
+    private final Stage<List<PendingApproval>> applyStage;
+    private final Stage<AppliedBatch> completeStage;
+
+    private volatile boolean running = true;
+
+    public RestaurantApprovalResponsePipeline(RestaurantApprovalResponseHelper restaurantApprovalResponseHelper,
+                                              OrderTrackingProjection orderTrackingProjection,
+                                              SagaTimeoutScheduler sagaTimeoutScheduler,
+                                              OrderServiceConfigData orderServiceConfigData) {
+        this.restaurantApprovalResponseHelper = restaurantApprovalResponseHelper;
+        this.orderTrackingProjection = orderTrackingProjection;
+        this.sagaTimeoutScheduler = sagaTimeoutScheduler;
+        this.maxBatchSize = orderServiceConfigData.getApprovalResponseMaxBatchSize();
+        this.maxBatchWaitNanos = TimeUnit.MILLISECONDS.toNanos(orderServiceConfigData.getApprovalResponseMaxBatchWaitMs());
+        int queueCapacity = orderServiceConfigData.getApprovalResponseQueueCapacity();
+        this.decodeStage = new Stage<>("decode", queueCapacity, null, this::decode,
+                (pendingApproval, e) -> pendingApproval.processed.completeExceptionally(e));
+        this.groupStage = new Stage<>("group", queueCapacity, decodeStage, this::group,
+                (pendingApproval, e) -> pendingApproval.processed.completeExceptionally(e));
+        // Batches are already up to max batch size, a few of them in flight is enough to keep apply busy
+        this.applyStage = new Stage<>("apply", 4, groupStage, this::apply,
+                (batch, e) -> batch.forEach(pendingApproval -> pendingApproval.processed.completeExceptionally(e)));
+        this.completeStage = new Stage<>("complete", 4, applyStage, this::complete,
+                (appliedBatch, e) -> appliedBatch.batch.forEach(pendingApproval ->
+                        pendingApproval.processed.completeExceptionally(e)));
+        List.of(decodeStage, groupStage, applyStage, completeStage).forEach(Stage::start);
+    }
+
+    // Blocks while the decode queue is full. The future completes once the response is committed.
+    public CompletableFuture<Void> submit(RestaurantAprovalResponse restaurantAprovalResponse) {
+        if (!running) {
+            throw new OrderDomainException("Restaurant approval response pipeline is shut down!");
+        }
+        PendingApproval pendingApproval = new PendingApproval(restaurantAprovalResponse);
+        decodeStage.put(pendingApproval);
+        return pendingApproval.processed;
+    }
+
+    public Map<String, StageMetrics> getStageMetrics() {
+        Map<String, StageMetrics> stageMetrics = new LinkedHashMap<>();
+        for (Stage<?> stage : List.of(decodeStage, groupStage, applyStage, completeStage)) {
+            stageMetrics.put(stage.name, stage.metrics);
+        }
+        return stageMetrics;
+    }
+
+    // Stages drain what their upstream handed over before they stop
+    @PreDestroy
+    public void close() {
+        running = false;
+        for (Stage<?> stage : List.of(decodeStage, groupStage, applyStage, completeStage)) {
+            try {
+                stage.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void decode(PendingApproval pendingApproval) throws InterruptedException {
+        RestaurantAprovalResponse response = pendingApproval.response;
+        try {
+            pendingApproval.decoded = new DecodedApprovalResponse(
+                    new OrderId(UUID.fromString(response.getOrderId())),
+                    UUID.fromString(response.getSagaId()),
+                    response.getOrderApprovalStatus() == OrderApprovalStatus.APPROVED,
+                    response.getFailureMessages());
+        } catch (RuntimeException e) {
+            log.error("Restaurant approval response with id: {} could not be decoded", response.getId(), e);
+            pendingApproval.processed.completeExceptionally(
+                    new OrderDomainException("Invalid restaurant approval response with id: " + response.getId(), e));
+            return;
+        }
+        groupStage.put(pendingApproval);
+    }
+
+    // Waits up to the max batch wait for more responses, then hands the batch over grouped by order so
+    // responses of one order stay together and in arrival order
+    private void group(PendingApproval first) throws InterruptedException {
+        List<PendingApproval> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + maxBatchWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            groupStage.queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            PendingApproval next = groupStage.queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+
+        Map<OrderId, List<PendingApproval>> byOrder = new LinkedHashMap<>();
+        batch.forEach(pendingApproval ->
+                byOrder.computeIfAbsent(pendingApproval.decoded.getOrderId(), orderId -> new ArrayList<>(1))
+                        .add(pendingApproval));
+        List<PendingApproval> grouped = new ArrayList<>(batch.size());
+        byOrder.values().forEach(grouped::addAll);
+        applyStage.put(grouped);
+    }
+
+    private void apply(List<PendingApproval> batch) throws InterruptedException {
+        List<DecodedApprovalResponse> approvalResponses = new ArrayList<>(batch.size());
+        batch.forEach(pendingApproval -> approvalResponses.add(pendingApproval.decoded));
+        try {
+            List<Order> changedOrders = restaurantApprovalResponseHelper.applyApprovalResponses(approvalResponses);
+            completeStage.put(new AppliedBatch(batch, changedOrders, null));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.error("Restaurant approval response for order with id: {} could not be applied",
+                        batch.get(0).response.getOrderId(), e);
+                completeStage.put(new AppliedBatch(batch, List.of(), e));
+                return;
+            }
+            // One bad response shouldn't fail the others, so the batch is applied again one by one
+            log.warn("Batch of {} restaurant approval responses failed, applying them one by one", batch.size(), e);
+            for (PendingApproval pendingApproval : batch) {
+                apply(List.of(pendingApproval));
+            }
+        }
+    }
+
+    private void complete(AppliedBatch appliedBatch) {
+        if (appliedBatch.failure != null) {
+            appliedBatch.batch.forEach(pendingApproval -> pendingApproval.processed.completeExceptionally(appliedBatch.failure));
+            return;
+        }
+        appliedBatch.changedOrders.forEach(order -> {
+            orderTrackingProjection.apply(order);
+            sagaTimeoutScheduler.track(order);
+        });
+        appliedBatch.batch.forEach(pendingApproval -> pendingApproval.processed.complete(null));
+    }
+
+    private static final class PendingApproval {
+        private final RestaurantAprovalResponse response;
+        private final CompletableFuture<Void> processed = new CompletableFuture<>();
+        private DecodedApprovalResponse decoded;
+
+        private PendingApproval(RestaurantAprovalResponse response) {
+            this.response = response;
+        }
+    }
+
+    private record AppliedBatch(List<PendingApproval> batch, List<Order> changedOrders, RuntimeException failure) {
+    }
+
+    private interface StageHandler<I> {
+        void handle(I item) throws InterruptedException;
+    }
+
+    private final class Stage<I> implements Runnable {
+        private final String name;
+        private final BlockingQueue<I> queue;
+        private final Stage<?> upstream;
+        private final StageHandler<I> handler;
+        private final BiConsumer<I, Throwable> failureHandler;
+        private final StageMetrics metrics = new StageMetrics();
+        private final Thread thread;
+
+        private Stage(String name, int queueCapacity, Stage<?> upstream, StageHandler<I> handler,
+                      BiConsumer<I, Throwable> failureHandler) {
+            this.name = name;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.upstream = upstream;
+            this.handler = handler;
+            this.failureHandler = failureHandler;
+            this.thread = new Thread(this, "approval-response-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        private void start() {
+            thread.start();
+        }
+
+        private void put(I item) {
+            try {
+                queue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OrderDomainException("Interrupted while queueing restaurant approval response!", e);
+            }
+        }
+
+        // Nothing more can arrive once the stage in front has stopped, or for the first stage, once shut down
+        private boolean isUpstreamDone() {
+            return upstream == null ? !running : !upstream.thread.isAlive();
+        }
+
+        @Override
+        public void run() {
+            while (!isUpstreamDone() || !queue.isEmpty()) {
+                I item = null;
+                try {
+                    item = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (item == null) {
+                        continue;
+                    }
+                    long start = System.nanoTime();
+                    handler.handle(item);
+                    metrics.record(System.nanoTime() - start);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException | Error e) {
+                    // The stage keeps running, a stopped stage would leave every later response waiting forever
+                    log.error("Unexpected error in restaurant approval response {} stage", name, e);
+                    if (item != null) {
+                        failureHandler.accept(item, e);
+                    }
+                }
+            }
+        }
+    }
+}
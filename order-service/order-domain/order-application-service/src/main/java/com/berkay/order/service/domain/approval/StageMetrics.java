@@ -0,0 +1,31 @@
+package com.berkay.order.service.domain.approval;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency of one pipeline stage, recorded per item or batch the stage handles
+public class StageMetrics {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getAverageLatencyNanos() {
+        long current = count.sum();
+        return current == 0 ? 0 : totalNanos.sum() / current;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxNanos.get();
+    }
+}
@@ -0,0 +1,79 @@
+package com.berkay.order.service.domain.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order-service")
+public class OrderServiceConfigData {
+    // Async order operations admitted at the same time, further calls are rejected
+    private Integer asyncMaxInFlight = 10_000;
+    // Pool size used for async operations when the runtime has no virtual threads
+    private Integer asyncPlatformThreads = 200;
+    // Pool size for repository lookups run in parallel when the runtime has no virtual threads
+    private Integer lookupPlatformThreads = 64;
+    // Deadline for the customer and restaurant lookups of one order together
+    private Long lookupTimeoutMs = 2_000L;
+    // Bloom filter guard over customer ids. Ids it has never seen still go to the repository, rejecting them
+    // up front is only safe once every customer creation reaches CustomerMessageListener. No messaging adapter
+    // calls that port yet, so keep reject misses off until a customer created feed is consumed
+    private Boolean customerFilterEnabled = true;
+    private Boolean customerFilterRejectMisses = false;
+    private Long customerFilterInitialCapacity = 1_000_000L;
+    private Double customerFilterFalsePositiveRate = 0.01;
+    // Restaurant cache is opt in, menus can be served stale until the next refresh or invalidation
+    private Boolean restaurantCacheEnabled = false;
+    private Long restaurantCacheMaximumSize = 10_000L;
+    private Long restaurantCacheRefreshAfterMs = 60_000L;
+    private Long restaurantCacheExpireAfterMs = 300_000L;
+    // Tracking read model, in flight orders are re-read from the repository once older than the max staleness
+    private Boolean trackingProjectionEnabled = true;
+    private Long trackingProjectionMaxActiveOrders = 200_000L;
+    private Long trackingProjectionMaxTerminalOrders = 100_000L;
+    private Long trackingProjectionActiveMaxStalenessMs = 30_000L;
+    // Adaptive (AIMD) concurrency limit per restaurant for order creation, excess orders are rejected
+    private Boolean restaurantAdmissionEnabled = true;
+    private Integer restaurantAdmissionInitialLimit = 20;
+    private Integer restaurantAdmissionMinLimit = 2;
+    private Integer restaurantAdmissionMaxLimit = 200;
+    private Long restaurantAdmissionLatencyThresholdMs = 500L;
+    private Double restaurantAdmissionBackoffRatio = 0.9;
+    private Long restaurantAdmissionMaxRestaurants = 100_000L;
+    private Long restaurantAdmissionIdleExpiryMs = 600_000L;
+    // Token bucket per customer on order creation: burst orders at once, then permits per second
+    private Boolean customerRateLimitEnabled = true;
+    private Long customerRateLimitPermitsPerSecond = 5L;
+    private Long customerRateLimitBurst = 20L;
+    private Long customerRateLimitMaxCustomers = 1_000_000L;
+    private Long customerRateLimitIdleExpiryMs = 60_000L;
+    // Outbox relay: messages claimed per transaction, batches per scheduler run and how long to wait for acks
+    private Integer outboxBatchSize = 500;
+    private Integer outboxMaxBatchesPerRun = 20;
+    private Long outboxSendTimeoutMs = 10_000L;
+    // Relayed messages are handed to the publisher adapter by a drain thread through a ring buffer (power of two),
+    // in batches collected for up to the max wait. A relay waits up to the offer timeout for a free slot.
+    private Integer outboxSendRingCapacity = 1_024;
+    private Integer outboxSendMaxBatchSize = 100;
+    private Long outboxSendMaxWaitMs = 5L;
+    private Long outboxSendOfferTimeoutMs = 1_000L;
+    // Payment responses are applied by single writer workers chosen by order id, 0 means one per processor
+    private Integer paymentResponseWorkers = 0;
+    private Integer paymentResponseQueueCapacity = 1_024;
+    private Integer paymentResponseMaxBatchSize = 100;
+    // Restaurant approval responses are applied in micro batches, collected for up to the max batch wait
+    private Integer approvalResponseQueueCapacity = 1_024;
+    private Integer approvalResponseMaxBatchSize = 200;
+    private Long approvalResponseMaxBatchWaitMs = 10L;
+    // Orders waiting too long for a payment or approval response are cancelled, deadlines are kept on a timing wheel
+    private Boolean sagaTimeoutEnabled = true;
+    private Long sagaPaymentTimeoutMs = 300_000L;
+    private Long sagaApprovalTimeoutMs = 600_000L;
+    private Long sagaTimeoutTickMs = 100L;
+    private Integer sagaTimeoutWheelSize = 4_096;
+    private Integer sagaTimeoutBatchSize = 500;
+    private Long sagaTimeoutRetryDelayMs = 30_000L;
+    // Create commands are checked by the compile time generated validator, false uses Hibernate Validator
+    private Boolean createOrderGeneratedValidation = true;
+}
@@ -0,0 +1,139 @@
+package com.berkay.order.service.domain.customer;
+
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.ports.output.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// In memory guard in front of CustomerRepository. Customer ids are loaded into a Bloom filter on startup and
+// customers created afterwards are registered through CustomerMessageListener. Ids the filter has never seen
+// are rejected without a repository call only when customer-filter-reject-misses is set, otherwise they are
+// looked up and registered when found. Until seeding completes (or when disabled) every id passes through.
+// No messaging adapter feeds CustomerMessageListener yet, so for now the filter never rejects by default and only
+// reports misses and late registrations. Those show how far behind the filter is without a creation feed.
+@Slf4j
+@Component
+public class CustomerIdFilter {
+
+    private final CustomerRepository customerRepository;
+
+    private final OrderServiceConfigData orderServiceConfigData;
+
+    private final ScalableBloomFilter bloomFilter;
+
+    private volatile boolean seeded;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder possibleHits = new LongAdder();
+
+    private final LongAdder falsePositives = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder lateRegistrations = new LongAdder();
+
+    public CustomerIdFilter(CustomerRepository customerRepository, OrderServiceConfigData orderServiceConfigData) {
+        this.customerRepository = customerRepository;
+        this.orderServiceConfigData = orderServiceConfigData;
+        this.bloomFilter = new ScalableBloomFilter(orderServiceConfigData.getCustomerFilterInitialCapacity(),
+                orderServiceConfigData.getCustomerFilterFalsePositiveRate());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!orderServiceConfigData.getCustomerFilterEnabled()) {
+            log.info("Customer id filter is disabled");
+            return;
+        }
+        try (Stream<UUID> customerIds = customerRepository.findAllCustomerIds()) {
+            customerIds.forEach(bloomFilter::add);
+        }
+        seeded = true;
+        if (orderServiceConfigData.getCustomerFilterRejectMisses()) {
+            log.warn("Customer id filter rejects unknown ids, customers created after seeding are rejected " +
+                    "unless their creation reaches CustomerMessageListener");
+        }
+        log.info("Customer id filter is seeded with {} customers, using {} bytes", bloomFilter.size(),
+                bloomFilter.memoryFootprintBytes());
+    }
+
+    // Keeps the filter current, call when a customer is created
+    public void register(UUID customerId) {
+        bloomFilter.add(customerId);
+    }
+
+    // False means the customer definitely doesn't exist
+    public boolean mightExist(UUID customerId) {
+        if (!seeded) {
+            return true;
+        }
+        if (bloomFilter.mightContain(customerId)) {
+            possibleHits.increment();
+            return true;
+        }
+        if (orderServiceConfigData.getCustomerFilterRejectMisses()) {
+            rejected.increment();
+            return false;
+        }
+        misses.increment();
+        return true;
+    }
+
+    // Call when the repository found a customer, registers customers whose creation the filter didn't hear of
+    public void recordFound(UUID customerId) {
+        if (seeded && !bloomFilter.mightContain(customerId)) {
+            bloomFilter.add(customerId);
+            lateRegistrations.increment();
+        }
+    }
+
+    // Call when the repository didn't find a customer the filter let through
+    public void recordNotFound(UUID customerId) {
+        if (seeded && bloomFilter.mightContain(customerId)) {
+            falsePositives.increment();
+        }
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getPossibleHitCount() {
+        return possibleHits.sum();
+    }
+
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    // Customers found by the repository that were not registered, a steady rate means creations are not reported
+    public long getLateRegistrationCount() {
+        return lateRegistrations.sum();
+    }
+
+    // Share of unknown customer ids the filter let through as possible hits
+    public double getObservedFalsePositiveRate() {
+        long falsePositiveCount = falsePositives.sum();
+        long negatives = falsePositiveCount + rejected.sum() + misses.sum() - lateRegistrations.sum();
+        return negatives == 0 ? 0 : (double) falsePositiveCount / negatives;
+    }
+
+    public double getExpectedFalsePositiveRate() {
+        return bloomFilter.expectedFalsePositiveRate();
+    }
+
+    public long getMemoryFootprintBytes() {
+        return bloomFilter.memoryFootprintBytes();
+    }
+}
@@ -0,0 +1,138 @@
+package com.berkay.order.service.domain.customer;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Scalable Bloom filter of UUIDs (Almeida et al.): when a stage reaches its capacity a new stage is added
+// with twice the capacity and half the false positive rate, so the overall rate stays below the target
+// however many ids are added. Thread safe: bits are set with atomic ORs and stages are copy on write.
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final long initialCapacity;
+    private final double firstStageFalsePositiveRate;
+    private volatile Stage[] stages;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        this.initialCapacity = initialCapacity;
+        // Rates of the stages form a geometric series, its sum is the requested rate
+        this.firstStageFalsePositiveRate = falsePositiveRate * (1 - TIGHTENING_RATIO);
+        this.stages = new Stage[]{new Stage(initialCapacity, firstStageFalsePositiveRate)};
+    }
+
+    public void add(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() ^ h1) | 1;
+        if (mightContain(h1, h2)) {
+            return;
+        }
+        Stage stage = currentStage();
+        stage.add(h1, h2);
+    }
+
+    public boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() ^ h1) | 1;
+        return mightContain(h1, h2);
+    }
+
+    // Estimated from the current fill of every stage
+    public double expectedFalsePositiveRate() {
+        double allStagesNegative = 1;
+        for (Stage stage : stages) {
+            allStagesNegative *= 1 - stage.expectedFalsePositiveRate();
+        }
+        return 1 - allStagesNegative;
+    }
+
+    public long memoryFootprintBytes() {
+        return Arrays.stream(stages).mapToLong(stage -> stage.bits.length() * (long) Long.BYTES).sum();
+    }
+
+    public long size() {
+        return Arrays.stream(stages).mapToLong(stage -> stage.insertions.get()).sum();
+    }
+
+    private boolean mightContain(long h1, long h2) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Stage currentStage() {
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        return last.insertions.get() < last.capacity ? last : addStage(current);
+    }
+
+    private synchronized Stage addStage(Stage[] seen) {
+        Stage[] current = stages;
+        if (current != seen) {
+            return current[current.length - 1];
+        }
+        int stageNumber = current.length;
+        Stage stage = new Stage((long) (initialCapacity * Math.pow(GROWTH_FACTOR, stageNumber)),
+                firstStageFalsePositiveRate * Math.pow(TIGHTENING_RATIO, stageNumber));
+        Stage[] updated = Arrays.copyOf(current, stageNumber + 1);
+        updated[stageNumber] = stage;
+        stages = updated;
+        return stage;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static final class Stage {
+        private final long capacity;
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round(-Math.log(falsePositiveRate) / Math.log(2)));
+        }
+
+        private void add(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = bits.get(word);
+                while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                    current = bits.get(word);
+                }
+            }
+            insertions.incrementAndGet();
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-hashCount * (double) insertions.get() / bitCount), hashCount);
+        }
+    }
+}
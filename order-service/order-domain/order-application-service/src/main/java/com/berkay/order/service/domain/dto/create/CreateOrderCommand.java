@@ -1,6 +1,9 @@
 package com.berkay.order.service.domain.dto.create;
 
+import com.berkay.validation.GenerateValidator;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -11,6 +14,7 @@ import java.util.UUID;
 
 @Getter
 @Builder
+@GenerateValidator
 @AllArgsConstructor
 public class CreateOrderCommand {
     @NotNull
@@ -19,8 +23,11 @@ public class CreateOrderCommand {
     private final UUID restaurantId;
     @NotNull
     private final BigDecimal price;
+    @Valid
     @NotNull
+    @Size(min = 1, max = 100)
     private final List<OrderItem> items;
+    @Valid
     @NotNull
     private final OrderAddress address;
 }
@@ -0,0 +1,15 @@
+package com.berkay.order.service.domain.dto.create;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+// Result of one command of a batch, either the created order or why it was rejected
+@Getter
+@Builder
+@AllArgsConstructor
+public class CreateOrderResult {
+    private final boolean created;
+    private final CreateOrderResponse createOrderResponse;
+    private final String failureMessage;
+}
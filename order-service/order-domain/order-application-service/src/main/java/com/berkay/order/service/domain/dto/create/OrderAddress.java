@@ -1,22 +1,24 @@
 package com.berkay.order.service.domain.dto.create;
 
-import jakarta.validation.constraints.Max;
+import com.berkay.validation.GenerateValidator;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 
 @Getter
 @Builder
+@GenerateValidator
 @AllArgsConstructor
 public class OrderAddress {
     @NotNull
-    @Max(value = 50)
+    @Size(max = 50)
     private final String street;
     @NotNull
-    @Max(value = 10)
+    @Size(max = 10)
     private final String postalCode;
     @NotNull
-    @Max(value = 50)
+    @Size(max = 50)
     private final String city;
 }
@@ -1,6 +1,8 @@
 package com.berkay.order.service.domain.dto.create;
 
+import com.berkay.validation.GenerateValidator;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -10,11 +12,13 @@ import java.util.UUID;
 
 @Getter
 @Builder
+@GenerateValidator
 @AllArgsConstructor
 public class OrderItem {
     @NotNull
     private final UUID productId;
     @NotNull
+    @Positive
     private final Integer quantity;
     @NotNull
     private final BigDecimal price;
@@ -1,5 +1,6 @@
 package com.berkay.order.service.domain.dto.track;
 
+import com.berkay.validation.GenerateValidator;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -9,6 +10,7 @@ import java.util.UUID;
 
 @Getter
 @Builder
+@GenerateValidator
 @AllArgsConstructor
 public class TrackOrderQuery {
     @NotNull
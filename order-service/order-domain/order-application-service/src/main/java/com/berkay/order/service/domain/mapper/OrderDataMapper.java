@@ -1,9 +1,12 @@
 package com.berkay.order.service.domain.mapper;
 
+import com.berkay.domain.id.IdGenerator;
 import com.berkay.domain.valueobject.CustomerId;
 import com.berkay.domain.valueobject.Money;
+import com.berkay.domain.valueobject.PaymentOrderStatus;
 import com.berkay.domain.valueobject.ProductId;
 import com.berkay.domain.valueobject.RestaurantId;
+import com.berkay.domain.valueobject.RestaurantOrderStatus;
 import com.berkay.order.service.domain.dto.create.CreateOrderCommand;
 import com.berkay.order.service.domain.dto.create.CreateOrderResponse;
 import com.berkay.order.service.domain.dto.create.OrderAddress;
@@ -12,16 +15,29 @@ import com.berkay.order.service.domain.entity.Order;
 import com.berkay.order.service.domain.entity.OrderItem;
 import com.berkay.order.service.domain.entity.Product;
 import com.berkay.order.service.domain.entity.Restaurant;
+import com.berkay.order.service.domain.event.OrderCancelledEvent;
+import com.berkay.order.service.domain.event.OrderCreatedEvent;
+import com.berkay.order.service.domain.event.OrderPaidEvent;
+import com.berkay.order.service.domain.outbox.model.approval.OrderApprovalEventPayload;
+import com.berkay.order.service.domain.outbox.model.approval.OrderApprovalEventProduct;
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentEventPayload;
+import com.berkay.order.service.domain.track.OrderTrackingView;
+import com.berkay.order.service.domain.valueobject.FailureReasonRegistry;
 import com.berkay.order.service.domain.valueobject.StreetAddress;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component // we can inject and use this from service classes
 public class OrderDataMapper {
 
+    private final IdGenerator idGenerator;
+
+    public OrderDataMapper(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
     public Restaurant createOrderCommandToRestaurant(CreateOrderCommand createOrderCommand) {
         return Restaurant.builder()
                 .restaurantId(new RestaurantId(createOrderCommand.getRestaurantId()))
@@ -53,7 +69,52 @@ public class OrderDataMapper {
         return TrackOrderResponse.builder()
                 .orderTrackingId(order.getTrackingId().getValue())
                 .orderStatus(order.getOrderStatus())
-                .failureMessages(order.getFailureMessages())
+                // Failure reasons are only turned back into text here, when shown to the client
+                .failureMessages(FailureReasonRegistry.render(order.getFailureCodes(), order.getFailureParameters()))
+                .build();
+    }
+
+    public TrackOrderResponse orderTrackingViewToTrackOrderResponse(OrderTrackingView orderTrackingView) {
+        return TrackOrderResponse.builder()
+                .orderTrackingId(orderTrackingView.getTrackingId())
+                .orderStatus(orderTrackingView.getOrderStatus())
+                .failureMessages(FailureReasonRegistry.render(orderTrackingView.getFailureCodes(),
+                        orderTrackingView.getFailureParameters()))
+                .build();
+    }
+
+    public OrderPaymentEventPayload orderCreatedEventToOrderPaymentEventPayload(OrderCreatedEvent orderCreatedEvent) {
+        return OrderPaymentEventPayload.builder()
+                .orderId(orderCreatedEvent.getOrder().getId().getValue())
+                .customerId(orderCreatedEvent.getOrder().getCustomerId().getValue())
+                .price(orderCreatedEvent.getOrder().getPrice().getAmount())
+                .createdAt(orderCreatedEvent.getCreatedAt())
+                .paymentOrderStatus(PaymentOrderStatus.PENDING)
+                .build();
+    }
+
+    public OrderPaymentEventPayload orderCancelledEventToOrderPaymentEventPayload(OrderCancelledEvent orderCancelledEvent) {
+        return OrderPaymentEventPayload.builder()
+                .orderId(orderCancelledEvent.getOrder().getId().getValue())
+                .customerId(orderCancelledEvent.getOrder().getCustomerId().getValue())
+                .price(orderCancelledEvent.getOrder().getPrice().getAmount())
+                .createdAt(orderCancelledEvent.getCreatedAt())
+                .paymentOrderStatus(PaymentOrderStatus.CANCELLED)
+                .build();
+    }
+
+    public OrderApprovalEventPayload orderPaidEventToOrderApprovalEventPayload(OrderPaidEvent orderPaidEvent) {
+        return OrderApprovalEventPayload.builder()
+                .orderId(orderPaidEvent.getOrder().getId().getValue())
+                .restaurantId(orderPaidEvent.getOrder().getRestaurantId().getValue())
+                .price(orderPaidEvent.getOrder().getPrice().getAmount())
+                .createdAt(orderPaidEvent.getCreatedAt())
+                .restaurantOrderStatus(RestaurantOrderStatus.PAID)
+                .products(orderPaidEvent.getOrder().getItems().stream().map(orderItem ->
+                        OrderApprovalEventProduct.builder()
+                                .id(orderItem.getProduct().getId().getValue())
+                                .quantity(orderItem.getQuantity())
+                                .build()).collect(Collectors.toList()))
                 .build();
     }
 
@@ -70,7 +131,7 @@ public class OrderDataMapper {
 
     private StreetAddress orderAddressToStreetAddress(OrderAddress orderAddress) {
         return new StreetAddress(
-                UUID.randomUUID(),
+                idGenerator.generate(),
                 orderAddress.getStreet(),
                 orderAddress.getPostalCode(),
                 orderAddress.getCity()
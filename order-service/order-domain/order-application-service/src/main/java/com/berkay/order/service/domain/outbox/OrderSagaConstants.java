@@ -0,0 +1,10 @@
+package com.berkay.order.service.domain.outbox;
+
+public final class OrderSagaConstants {
+
+    // Outbox type of every message of the order processing saga
+    public static final String ORDER_SAGA_NAME = "OrderProcessingSaga";
+
+    private OrderSagaConstants() {
+    }
+}
@@ -0,0 +1,144 @@
+package com.berkay.order.service.domain.outbox;
+
+import com.berkay.domain.event.DomainEvent;
+import com.berkay.domain.event.publisher.BatchingDomainEventPublisher;
+import com.berkay.domain.id.IdGenerator;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.exception.OrderDomainException;
+import com.berkay.order.service.domain.ports.output.message.publisher.OutboxMessagePublisher;
+import com.berkay.order.service.domain.ports.output.repository.OutboxRepository;
+import com.berkay.outbox.OutboxMessage;
+import com.berkay.outbox.OutboxStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static com.berkay.order.service.domain.outbox.OrderSagaConstants.ORDER_SAGA_NAME;
+
+// Saves, relays and cleans up the messages of one outbox table. Subclasses only build their message type
+// from its payload, the repository and publisher ports of the table are passed in. The relay only claims ring
+// slots for its messages, a drain thread per table hands them to the publisher adapter in batches.
+@Slf4j
+public abstract class OutboxHelper<T extends OutboxMessage, P> {
+
+    private static final List<OutboxStatus> PENDING_STATUSES = List.of(OutboxStatus.STARTED, OutboxStatus.FAILED);
+
+    private final OutboxRepository<T> outboxRepository;
+
+    private final OutboxMessagePublisher<T> outboxMessagePublisher;
+
+    private final IdGenerator idGenerator;
+
+    private final OrderServiceConfigData orderServiceConfigData;
+
+    private final String messageName;
+
+    private final BatchingDomainEventPublisher<SendRequest<T>> sendPublisher;
+
+    protected OutboxHelper(OutboxRepository<T> outboxRepository,
+                           OutboxMessagePublisher<T> outboxMessagePublisher,
+                           IdGenerator idGenerator,
+                           OrderServiceConfigData orderServiceConfigData,
+                           String messageName) {
+        this.outboxRepository = outboxRepository;
+        this.outboxMessagePublisher = outboxMessagePublisher;
+        this.idGenerator = idGenerator;
+        this.orderServiceConfigData = orderServiceConfigData;
+        this.messageName = messageName;
+        this.sendPublisher = new BatchingDomainEventPublisher<>(messageName + "-send", this::send,
+                orderServiceConfigData.getOutboxSendRingCapacity(),
+                orderServiceConfigData.getOutboxSendMaxBatchSize(),
+                Duration.ofMillis(orderServiceConfigData.getOutboxSendMaxWaitMs()),
+                Duration.ofMillis(orderServiceConfigData.getOutboxSendOfferTimeoutMs()));
+    }
+
+    // Joins the transaction the order is saved in, the message is only sent once both are committed
+    @Transactional
+    public void saveOutboxMessage(P payload, OrderStatus orderStatus, UUID sagaId) {
+        T response = outboxRepository.save(newOutboxMessage(idGenerator.generate(), payload, orderStatus, sagaId));
+        if (response == null) {
+            log.error("Could not save {} with saga id: {}", messageName, sagaId);
+            throw new OrderDomainException("Could not save " + messageName + " with saga id: " + sagaId);
+        }
+        log.info("{} saved with outbox id: {}", messageName, response.getId());
+    }
+
+    // Payloads and saga ids are parallel lists
+    @Transactional
+    public void saveOutboxMessages(List<P> payloads, OrderStatus orderStatus, List<UUID> sagaIds) {
+        List<T> outboxMessages = new ArrayList<>(payloads.size());
+        for (int i = 0; i < payloads.size(); i++) {
+            outboxMessages.add(newOutboxMessage(idGenerator.generate(), payloads.get(i), orderStatus, sagaIds.get(i)));
+        }
+        List<T> response = outboxRepository.saveAll(outboxMessages);
+        if (response == null || response.size() != outboxMessages.size()) {
+            log.error("Could not save {} {}s", outboxMessages.size(), messageName);
+            throw new OrderDomainException("Could not save " + outboxMessages.size() + " " + messageName + "s");
+        }
+        log.info("{} {}s saved", response.size(), messageName);
+    }
+
+    // Claims, sends and marks one batch in a single transaction, the claimed rows stay locked until the
+    // statuses are written. Returns the number of claimed messages.
+    @Transactional
+    public int relayBatch() {
+        List<T> outboxMessages = outboxRepository.claimBatch(ORDER_SAGA_NAME, PENDING_STATUSES,
+                orderServiceConfigData.getOutboxBatchSize());
+        if (outboxMessages.isEmpty()) {
+            return 0;
+        }
+        log.info("Claimed {} {}s to send", outboxMessages.size(), messageName);
+        // A full ring fails the message, it keeps its status and is sent again by a later run
+        OutboxRelay.SendResult sendResult = OutboxRelay.send(outboxMessages,
+                (outboxMessage, outboxCallback) -> sendPublisher.publish(new SendRequest<>(outboxMessage, outboxCallback)),
+                orderServiceConfigData.getOutboxSendTimeoutMs());
+        ZonedDateTime processedAt = ZonedDateTime.now(ZoneId.of("UTC"));
+        if (!sendResult.getCompletedIds().isEmpty()) {
+            outboxRepository.updateOutboxStatus(sendResult.getCompletedIds(), OutboxStatus.COMPLETED, processedAt);
+        }
+        if (!sendResult.getFailedIds().isEmpty()) {
+            outboxRepository.updateOutboxStatus(sendResult.getFailedIds(), OutboxStatus.FAILED, processedAt);
+        }
+        log.info("{} {}s sent, {} failed", sendResult.getCompletedIds().size(), messageName,
+                sendResult.getFailedIds().size());
+        return outboxMessages.size();
+    }
+
+    @Transactional
+    public int deleteCompletedMessages() {
+        int deleted = outboxRepository.deleteByTypeAndOutboxStatus(ORDER_SAGA_NAME, OutboxStatus.COMPLETED);
+        log.info("{} completed {}s deleted", deleted, messageName);
+        return deleted;
+    }
+
+    // Messages already handed to the ring are still sent
+    @PreDestroy
+    public void close() {
+        sendPublisher.close();
+    }
+
+    protected abstract T newOutboxMessage(UUID id, P payload, OrderStatus orderStatus, UUID sagaId);
+
+    // Runs on the drain thread. A message the adapter rejects is failed right away instead of waiting for the timeout.
+    private void send(SendRequest<T> sendRequest) {
+        try {
+            outboxMessagePublisher.publish(sendRequest.outboxMessage(), sendRequest.outboxCallback());
+        } catch (RuntimeException e) {
+            log.error("Could not send {} with id: {}", messageName, sendRequest.outboxMessage().getId(), e);
+            sendRequest.outboxCallback().accept(sendRequest.outboxMessage(), OutboxStatus.FAILED);
+        }
+    }
+
+    private record SendRequest<T>(T outboxMessage, BiConsumer<T, OutboxStatus> outboxCallback)
+            implements DomainEvent<T> {
+    }
+}
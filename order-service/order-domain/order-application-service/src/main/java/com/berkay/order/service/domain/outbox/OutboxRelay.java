@@ -0,0 +1,67 @@
+package com.berkay.order.service.domain.outbox;
+
+import com.berkay.outbox.OutboxMessage;
+import com.berkay.outbox.OutboxStatus;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// Sends a claimed outbox batch pipelined: every message is handed to the publisher without waiting for its
+// ack, then the relay waits once for all callbacks. Messages without a callback before the timeout keep their
+// status and are sent again by a later run, so delivery is at least once and consumers have to be idempotent.
+@Slf4j
+public final class OutboxRelay {
+
+    private OutboxRelay() {
+    }
+
+    public static <T extends OutboxMessage> SendResult send(List<T> messages,
+                                                            BiConsumer<T, BiConsumer<T, OutboxStatus>> publisher,
+                                                            long timeoutMs) {
+        ConcurrentLinkedQueue<UUID> completedIds = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<UUID> failedIds = new ConcurrentLinkedQueue<>();
+        CountDownLatch pendingCallbacks = new CountDownLatch(messages.size());
+        BiConsumer<T, OutboxStatus> callback = (message, outboxStatus) -> {
+            (outboxStatus == OutboxStatus.COMPLETED ? completedIds : failedIds).add(message.getId());
+            pendingCallbacks.countDown();
+        };
+
+        for (T message : messages) {
+            try {
+                publisher.accept(message, callback);
+            } catch (RuntimeException e) {
+                log.error("Could not send outbox message with id: {}", message.getId(), e);
+                callback.accept(message, OutboxStatus.FAILED);
+            }
+        }
+
+        try {
+            if (!pendingCallbacks.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("{} of {} outbox messages were not acknowledged in {} ms, they will be sent again",
+                        pendingCallbacks.getCount(), messages.size(), timeoutMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for outbox message acknowledgements");
+        }
+        return new SendResult(new ArrayList<>(completedIds), new ArrayList<>(failedIds));
+    }
+
+    @Getter
+    public static final class SendResult {
+        private final List<UUID> completedIds;
+        private final List<UUID> failedIds;
+
+        private SendResult(List<UUID> completedIds, List<UUID> failedIds) {
+            this.completedIds = completedIds;
+            this.failedIds = failedIds;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.berkay.order.service.domain.outbox.model.approval;
+
+import com.berkay.domain.valueobject.RestaurantOrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Restaurant approval request as it is stored in the outbox, the data access adapter serializes it
+@Getter
+@Builder
+@AllArgsConstructor
+public class OrderApprovalEventPayload {
+    private final UUID orderId;
+    private final UUID restaurantId;
+    private final BigDecimal price;
+    private final ZonedDateTime createdAt;
+    private final RestaurantOrderStatus restaurantOrderStatus;
+    private final List<OrderApprovalEventProduct> products;
+}
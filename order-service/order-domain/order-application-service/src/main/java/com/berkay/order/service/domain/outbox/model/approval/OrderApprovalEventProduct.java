@@ -0,0 +1,15 @@
+package com.berkay.order.service.domain.outbox.model.approval;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class OrderApprovalEventProduct {
+    private final UUID id;
+    private final int quantity;
+}
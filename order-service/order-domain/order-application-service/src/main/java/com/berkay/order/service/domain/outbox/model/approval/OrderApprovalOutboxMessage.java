@@ -0,0 +1,29 @@
+package com.berkay.order.service.domain.outbox.model.approval;
+
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.outbox.OutboxMessage;
+import com.berkay.outbox.OutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class OrderApprovalOutboxMessage implements OutboxMessage {
+    private UUID id;
+    private UUID sagaId;
+    private ZonedDateTime createdAt;
+    @Setter
+    private ZonedDateTime processedAt;
+    private String type;
+    private OrderApprovalEventPayload payload;
+    private OrderStatus orderStatus;
+    @Setter
+    private OutboxStatus outboxStatus;
+    private int version;
+}
@@ -0,0 +1,22 @@
+package com.berkay.order.service.domain.outbox.model.payment;
+
+import com.berkay.domain.valueobject.PaymentOrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+// Payment request as it is stored in the outbox, the data access adapter serializes it
+@Getter
+@Builder
+@AllArgsConstructor
+public class OrderPaymentEventPayload {
+    private final UUID orderId;
+    private final UUID customerId;
+    private final BigDecimal price;
+    private final ZonedDateTime createdAt;
+    private final PaymentOrderStatus paymentOrderStatus;
+}
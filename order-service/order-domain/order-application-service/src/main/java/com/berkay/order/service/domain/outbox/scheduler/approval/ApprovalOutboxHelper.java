@@ -0,0 +1,44 @@
+package com.berkay.order.service.domain.outbox.scheduler.approval;
+
+import com.berkay.domain.id.IdGenerator;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.outbox.OutboxHelper;
+import com.berkay.order.service.domain.outbox.model.approval.OrderApprovalEventPayload;
+import com.berkay.order.service.domain.outbox.model.approval.OrderApprovalOutboxMessage;
+import com.berkay.order.service.domain.ports.output.message.publisher.restaurantapproval.RestaurantApprovalRequestMessagePublisher;
+import com.berkay.order.service.domain.ports.output.repository.ApprovalOutboxRepository;
+import com.berkay.outbox.OutboxStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+import static com.berkay.order.service.domain.outbox.OrderSagaConstants.ORDER_SAGA_NAME;
+
+@Component
+public class ApprovalOutboxHelper extends OutboxHelper<OrderApprovalOutboxMessage, OrderApprovalEventPayload> {
+
+    public ApprovalOutboxHelper(ApprovalOutboxRepository approvalOutboxRepository,
+                                RestaurantApprovalRequestMessagePublisher restaurantApprovalRequestMessagePublisher,
+                                IdGenerator idGenerator,
+                                OrderServiceConfigData orderServiceConfigData) {
+        super(approvalOutboxRepository, restaurantApprovalRequestMessagePublisher, idGenerator, orderServiceConfigData,
+                "OrderApprovalOutboxMessage");
+    }
+
+    @Override
+    protected OrderApprovalOutboxMessage newOutboxMessage(UUID id,
+                                                          OrderApprovalEventPayload orderApprovalEventPayload,
+                                                          OrderStatus orderStatus,
+                                                          UUID sagaId) {
+        return OrderApprovalOutboxMessage.builder()
+                .id(id)
+                .sagaId(sagaId)
+                .createdAt(orderApprovalEventPayload.getCreatedAt())
+                .type(ORDER_SAGA_NAME)
+                .payload(orderApprovalEventPayload)
+                .orderStatus(orderStatus)
+                .outboxStatus(OutboxStatus.STARTED)
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.berkay.order.service.domain.outbox.scheduler.approval;
+
+import com.berkay.outbox.OutboxScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class RestaurantApprovalOutboxCleanerScheduler implements OutboxScheduler {
+
+    private final ApprovalOutboxHelper approvalOutboxHelper;
+
+    public RestaurantApprovalOutboxCleanerScheduler(ApprovalOutboxHelper approvalOutboxHelper) {
+        this.approvalOutboxHelper = approvalOutboxHelper;
+    }
+
+    // Sent messages are removed in bulk instead of one by one after each send
+    @Override
+    @Scheduled(cron = "${order-service.outbox-cleaner-cron:@midnight}")
+    public void processOutboxMessage() {
+        approvalOutboxHelper.deleteCompletedMessages();
+    }
+}
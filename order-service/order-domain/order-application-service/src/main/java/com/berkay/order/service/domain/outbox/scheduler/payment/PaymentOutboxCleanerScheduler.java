@@ -0,0 +1,24 @@
+package com.berkay.order.service.domain.outbox.scheduler.payment;
+
+import com.berkay.outbox.OutboxScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class PaymentOutboxCleanerScheduler implements OutboxScheduler {
+
+    private final PaymentOutboxHelper paymentOutboxHelper;
+
+    public PaymentOutboxCleanerScheduler(PaymentOutboxHelper paymentOutboxHelper) {
+        this.paymentOutboxHelper = paymentOutboxHelper;
+    }
+
+    // Sent messages are removed in bulk instead of one by one after each send
+    @Override
+    @Scheduled(cron = "${order-service.outbox-cleaner-cron:@midnight}")
+    public void processOutboxMessage() {
+        paymentOutboxHelper.deleteCompletedMessages();
+    }
+}
@@ -0,0 +1,44 @@
+package com.berkay.order.service.domain.outbox.scheduler.payment;
+
+import com.berkay.domain.id.IdGenerator;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.outbox.OutboxHelper;
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentEventPayload;
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentOutboxMessage;
+import com.berkay.order.service.domain.ports.output.message.publisher.payment.PaymentRequestMessagePublisher;
+import com.berkay.order.service.domain.ports.output.repository.PaymentOutboxRepository;
+import com.berkay.outbox.OutboxStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+import static com.berkay.order.service.domain.outbox.OrderSagaConstants.ORDER_SAGA_NAME;
+
+@Component
+public class PaymentOutboxHelper extends OutboxHelper<OrderPaymentOutboxMessage, OrderPaymentEventPayload> {
+
+    public PaymentOutboxHelper(PaymentOutboxRepository paymentOutboxRepository,
+                               PaymentRequestMessagePublisher paymentRequestMessagePublisher,
+                               IdGenerator idGenerator,
+                               OrderServiceConfigData orderServiceConfigData) {
+        super(paymentOutboxRepository, paymentRequestMessagePublisher, idGenerator, orderServiceConfigData,
+                "OrderPaymentOutboxMessage");
+    }
+
+    @Override
+    protected OrderPaymentOutboxMessage newOutboxMessage(UUID id,
+                                                         OrderPaymentEventPayload orderPaymentEventPayload,
+                                                         OrderStatus orderStatus,
+                                                         UUID sagaId) {
+        return OrderPaymentOutboxMessage.builder()
+                .id(id)
+                .sagaId(sagaId)
+                .createdAt(orderPaymentEventPayload.getCreatedAt())
+                .type(ORDER_SAGA_NAME)
+                .payload(orderPaymentEventPayload)
+                .orderStatus(orderStatus)
+                .outboxStatus(OutboxStatus.STARTED)
+                .build();
+    }
+}
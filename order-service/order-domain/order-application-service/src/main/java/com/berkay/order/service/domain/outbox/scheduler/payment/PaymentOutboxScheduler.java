@@ -0,0 +1,36 @@
+package com.berkay.order.service.domain.outbox.scheduler.payment;
+
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.outbox.OutboxScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class PaymentOutboxScheduler implements OutboxScheduler {
+
+    private final PaymentOutboxHelper paymentOutboxHelper;
+
+    private final OrderServiceConfigData orderServiceConfigData;
+
+    public PaymentOutboxScheduler(PaymentOutboxHelper paymentOutboxHelper,
+                                  OrderServiceConfigData orderServiceConfigData) {
+        this.paymentOutboxHelper = paymentOutboxHelper;
+        this.orderServiceConfigData = orderServiceConfigData;
+    }
+
+    // Keeps relaying full batches, each in its own transaction, until the backlog is drained
+    @Override
+    @Scheduled(fixedDelayString = "${order-service.outbox-scheduler-fixed-rate:10000}",
+            initialDelayString = "${order-service.outbox-scheduler-initial-delay:10000}")
+    public void processOutboxMessage() {
+        int batches = 0;
+        int claimed;
+        do {
+            claimed = paymentOutboxHelper.relayBatch();
+            batches++;
+        } while (claimed == orderServiceConfigData.getOutboxBatchSize()
+                && batches < orderServiceConfigData.getOutboxMaxBatchesPerRun());
+    }
+}
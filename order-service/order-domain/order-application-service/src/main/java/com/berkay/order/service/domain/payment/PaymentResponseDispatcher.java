@@ -0,0 +1,188 @@
+package com.berkay.order.service.domain.payment;
+
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.dto.message.PaymentResponse;
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.exception.OrderDomainException;
+import com.berkay.order.service.domain.timeout.SagaTimeoutScheduler;
+import com.berkay.order.service.domain.track.OrderTrackingProjection;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Routes payment responses to a fixed set of single writer workers by order id. All responses of an order
+// go to the same worker and are applied in arrival order without locking, responses of different orders are
+// applied in parallel. A worker applies whatever is queued, up to the max batch size, in one transaction.
+@Slf4j
+@Component
+public class PaymentResponseDispatcher {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final PaymentResponseHelper paymentResponseHelper;
+
+    private final OrderTrackingProjection orderTrackingProjection;
+
+    private final SagaTimeoutScheduler sagaTimeoutScheduler;
+
+    private final int maxBatchSize;
+
+    private final Worker[] workers;
+
+    private volatile boolean running = true;
+
+    public PaymentResponseDispatcher(PaymentResponseHelper paymentResponseHelper,
+                                     OrderTrackingProjection orderTrackingProjection,
+                                     SagaTimeoutScheduler sagaTimeoutScheduler,
+                                     OrderServiceConfigData orderServiceConfigData) {
+        this.paymentResponseHelper = paymentResponseHelper;
+        this.orderTrackingProjection = orderTrackingProjection;
+        this.sagaTimeoutScheduler = sagaTimeoutScheduler;
+        this.maxBatchSize = orderServiceConfigData.getPaymentResponseMaxBatchSize();
+        int workerCount = orderServiceConfigData.getPaymentResponseWorkers() > 0
+                ? orderServiceConfigData.getPaymentResponseWorkers()
+                : Runtime.getRuntime().availableProcessors();
+        this.workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(i, orderServiceConfigData.getPaymentResponseQueueCapacity());
+        }
+        log.info("Started {} payment response workers", workerCount);
+    }
+
+    // Blocks while the worker's queue is full, which pushes back on the consumer. The future completes once
+    // the response is committed, e.g. to acknowledge the message only then.
+    public CompletableFuture<Void> dispatch(PaymentResponse paymentResponse) {
+        if (!running) {
+            throw new OrderDomainException("Payment response workers are shut down!");
+        }
+        Worker worker = workers[Math.floorMod(paymentResponse.getOrderId().hashCode(), workers.length)];
+        if (worker.stopped) {
+            throw worker.stoppedException();
+        }
+        PendingResponse pendingResponse = new PendingResponse(paymentResponse);
+        worker.enqueue(pendingResponse);
+        return pendingResponse.processed;
+    }
+
+    // Workers apply what is already queued before they stop
+    @PreDestroy
+    public void close() {
+        running = false;
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void process(List<PendingResponse> batch) {
+        List<PaymentResponse> paymentResponses = new ArrayList<>(batch.size());
+        batch.forEach(pendingResponse -> paymentResponses.add(pendingResponse.paymentResponse));
+        try {
+            List<Order> changedOrders = paymentResponseHelper.applyPaymentResponses(paymentResponses);
+            changedOrders.forEach(order -> {
+                orderTrackingProjection.apply(order);
+                sagaTimeoutScheduler.track(order);
+            });
+            batch.forEach(pendingResponse -> pendingResponse.processed.complete(null));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.error("Payment response for order with id: {} could not be applied",
+                        batch.get(0).paymentResponse.getOrderId(), e);
+                batch.get(0).processed.completeExceptionally(e);
+                return;
+            }
+            // One bad response shouldn't fail the others, so the batch is applied again one by one
+            log.warn("Batch of {} payment responses failed, applying them one by one", batch.size(), e);
+            batch.forEach(pendingResponse -> process(List.of(pendingResponse)));
+        }
+    }
+
+    private static final class PendingResponse {
+        private final PaymentResponse paymentResponse;
+        private final CompletableFuture<Void> processed = new CompletableFuture<>();
+
+        private PendingResponse(PaymentResponse paymentResponse) {
+            this.paymentResponse = paymentResponse;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final BlockingQueue<PendingResponse> queue;
+        private final Thread thread;
+        // Set before the worker fails what is left in its queue, see enqueue
+        private volatile boolean stopped;
+
+        private Worker(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "payment-response-worker-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void enqueue(PendingResponse pendingResponse) {
+            try {
+                queue.put(pendingResponse);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OrderDomainException("Interrupted while queueing payment response!", e);
+            }
+            // The worker may have stopped after the caller checked it. Then it either drained the response on
+            // its way out and failed it, or the response is still queued and is failed here.
+            if (stopped && queue.remove(pendingResponse)) {
+                pendingResponse.processed.completeExceptionally(stoppedException());
+            }
+        }
+
+        private OrderDomainException stoppedException() {
+            return new OrderDomainException("Payment response worker " + thread.getName() + " has stopped!");
+        }
+
+        @Override
+        public void run() {
+            try {
+                applyQueued();
+            } finally {
+                stopped = true;
+                List<PendingResponse> abandoned = new ArrayList<>();
+                queue.drainTo(abandoned);
+                abandoned.forEach(pendingResponse -> pendingResponse.processed.completeExceptionally(stoppedException()));
+            }
+        }
+
+        private void applyQueued() {
+            List<PendingResponse> batch = new ArrayList<>(maxBatchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingResponse first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    process(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException | Error e) {
+                    // The worker keeps running, a stopped worker would leave every later response of its orders
+                    // waiting forever. Responses of the batch that were not applied yet fail.
+                    log.error("Unexpected error in payment response worker", e);
+                    batch.forEach(pendingResponse -> pendingResponse.processed.completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
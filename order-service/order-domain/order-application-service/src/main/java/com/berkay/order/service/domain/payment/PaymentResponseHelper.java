@@ -0,0 +1,105 @@
+package com.berkay.order.service.domain.payment;
+
+import com.berkay.domain.valueobject.OrderId;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.domain.valueobject.PaymentStatus;
+import com.berkay.order.service.domain.OrderDomainService;
+import com.berkay.order.service.domain.SagaResponseHelper;
+import com.berkay.order.service.domain.dto.message.PaymentResponse;
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.event.OrderPaidEvent;
+import com.berkay.order.service.domain.exception.OrderNotFoundException;
+import com.berkay.order.service.domain.mapper.OrderDataMapper;
+import com.berkay.order.service.domain.outbox.model.approval.OrderApprovalEventPayload;
+import com.berkay.order.service.domain.outbox.scheduler.approval.ApprovalOutboxHelper;
+import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
+import com.berkay.order.service.domain.valueobject.OrderTransition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class PaymentResponseHelper {
+
+    private static final String PAYMENT_RESPONSE = "Payment response";
+
+    private final OrderDomainService orderDomainService;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderDataMapper orderDataMapper;
+
+    private final ApprovalOutboxHelper approvalOutboxHelper;
+
+    private final SagaResponseHelper sagaResponseHelper;
+
+    public PaymentResponseHelper(OrderDomainService orderDomainService,
+                                 OrderRepository orderRepository,
+                                 OrderDataMapper orderDataMapper,
+                                 ApprovalOutboxHelper approvalOutboxHelper,
+                                 SagaResponseHelper sagaResponseHelper) {
+        this.orderDomainService = orderDomainService;
+        this.orderRepository = orderRepository;
+        this.orderDataMapper = orderDataMapper;
+        this.approvalOutboxHelper = approvalOutboxHelper;
+        this.sagaResponseHelper = sagaResponseHelper;
+    }
+
+    // Applies a micro batch of payment responses in one transaction: the orders are loaded together, responses
+    // are applied in arrival order, and changed orders and approval requests are written in bulk.
+    // A response that doesn't fit the order's status (e.g. a redelivery) is skipped. Returns the changed orders.
+    @Transactional
+    public List<Order> applyPaymentResponses(List<PaymentResponse> paymentResponses) {
+        Set<OrderId> orderIds = new LinkedHashSet<>();
+        paymentResponses.forEach(paymentResponse -> orderIds.add(new OrderId(UUID.fromString(paymentResponse.getOrderId()))));
+        Map<OrderId, Order> orders = new HashMap<>();
+        orderRepository.findByIds(orderIds).forEach(order -> orders.put(order.getId(), order));
+
+        Map<OrderId, Order> changedOrders = new LinkedHashMap<>();
+        Map<OrderId, OrderStatus> loadedStatuses = new HashMap<>();
+        List<OrderApprovalEventPayload> orderApprovalEventPayloads = new ArrayList<>();
+        List<UUID> sagaIds = new ArrayList<>();
+        for (PaymentResponse paymentResponse : paymentResponses) {
+            OrderId orderId = new OrderId(UUID.fromString(paymentResponse.getOrderId()));
+            Order order = orders.get(orderId);
+            if (order == null) {
+                log.error("Could not find order with id: {}", paymentResponse.getOrderId());
+                throw new OrderNotFoundException("Could not find order with id: " + paymentResponse.getOrderId());
+            }
+            loadedStatuses.putIfAbsent(orderId, order.getOrderStatus());
+            if (paymentResponse.getPaymentStatus() == PaymentStatus.COMPLETED) {
+                if (!sagaResponseHelper.isApplicable(OrderTransition.PAY, order, PAYMENT_RESPONSE)) {
+                    continue;
+                }
+                OrderPaidEvent orderPaidEvent = orderDomainService.payOrder(order);
+                orderApprovalEventPayloads.add(orderDataMapper.orderPaidEventToOrderApprovalEventPayload(orderPaidEvent));
+                sagaIds.add(UUID.fromString(paymentResponse.getSagaId()));
+            } else {
+                if (!sagaResponseHelper.isApplicable(OrderTransition.CANCEL, order, PAYMENT_RESPONSE)) {
+                    continue;
+                }
+                orderDomainService.cancelOrder(order, paymentResponse.getFailureMessages());
+            }
+            changedOrders.put(orderId, order);
+        }
+
+        if (!changedOrders.isEmpty()) {
+            sagaResponseHelper.saveUnchanged(new ArrayList<>(changedOrders.values()), loadedStatuses);
+        }
+        if (!orderApprovalEventPayloads.isEmpty()) {
+            approvalOutboxHelper.saveOutboxMessages(orderApprovalEventPayloads, OrderStatus.PAID, sagaIds);
+        }
+        log.info("{} of {} payment responses are applied", changedOrders.size(), paymentResponses.size());
+        return new ArrayList<>(changedOrders.values());
+    }
+}
@@ -0,0 +1,10 @@
+package com.berkay.order.service.domain.ports.input.message.listener.customer;
+
+import java.util.UUID;
+
+// Customer created feed for the customer id filter. No messaging adapter calls it yet, a consumer of the
+// customer service's creation events has to be added before customer-filter-reject-misses can be enabled
+public interface CustomerMessageListener {
+
+    void customerCreated(UUID customerId);
+}
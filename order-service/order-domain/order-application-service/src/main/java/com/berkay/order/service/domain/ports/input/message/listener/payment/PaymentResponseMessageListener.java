@@ -2,9 +2,13 @@ package com.berkay.order.service.domain.ports.input.message.listener.payment;
 
 import com.berkay.order.service.domain.dto.message.PaymentResponse;
 
+import java.util.concurrent.CompletableFuture;
+
+// The returned future completes once the response is applied and committed, the adapter acknowledges the
+// message (commits its offset) only then, so a response lost in a crash is delivered again
 public interface PaymentResponseMessageListener {
 
-    void paymentCompleted(PaymentResponse paymentResponse);
+    CompletableFuture<Void> paymentCompleted(PaymentResponse paymentResponse);
 
-    void paymentCancelled(PaymentResponse paymentResponse);
+    CompletableFuture<Void> paymentCancelled(PaymentResponse paymentResponse);
 }
@@ -0,0 +1,8 @@
+package com.berkay.order.service.domain.ports.input.message.listener.restaurant;
+
+import java.util.UUID;
+
+public interface RestaurantMessageListener {
+
+    void restaurantMenuChanged(UUID restaurantId);
+}
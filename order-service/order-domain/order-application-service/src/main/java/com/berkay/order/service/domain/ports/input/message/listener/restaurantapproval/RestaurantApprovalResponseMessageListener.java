@@ -2,9 +2,13 @@ package com.berkay.order.service.domain.ports.input.message.listener.restauranta
 
 import com.berkay.order.service.domain.dto.message.RestaurantAprovalResponse;
 
+import java.util.concurrent.CompletableFuture;
+
+// The returned future completes once the response is applied and committed, the adapter acknowledges the
+// message (commits its offset) only then, so a response lost in a crash is delivered again
 public interface RestaurantApprovalResponseMessageListener {
 
-    void orderApproved(RestaurantAprovalResponse restaurantAprovalResponse);
+    CompletableFuture<Void> orderApproved(RestaurantAprovalResponse restaurantAprovalResponse);
 
-    void orderRejected(RestaurantAprovalResponse restaurantAprovalResponse);
+    CompletableFuture<Void> orderRejected(RestaurantAprovalResponse restaurantAprovalResponse);
 }
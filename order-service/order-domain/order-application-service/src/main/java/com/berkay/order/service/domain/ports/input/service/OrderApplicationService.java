@@ -2,14 +2,26 @@ package com.berkay.order.service.domain.ports.input.service;
 
 import com.berkay.order.service.domain.dto.create.CreateOrderCommand;
 import com.berkay.order.service.domain.dto.create.CreateOrderResponse;
+import com.berkay.order.service.domain.dto.create.CreateOrderResult;
 import com.berkay.order.service.domain.dto.track.TrackOrderQuery;
 import com.berkay.order.service.domain.dto.track.TrackOrderResponse;
-import jakarta.validation.Valid;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface OrderApplicationService {
 
-    // @Valid is for the validation of some fields in DTO's like @NotNull or @Max
-    CreateOrderResponse createOrder(@Valid CreateOrderCommand createOrderCommand);
+    // Commands and queries are checked by OrderRequestChecker, not by method validation
+    CreateOrderResponse createOrder(CreateOrderCommand createOrderCommand);
+
+    TrackOrderResponse trackOrder(TrackOrderQuery trackOrderQuery);
+
+    // Creates the orders in one transaction, results are in command order. A rejected command
+    // doesn't fail the others
+    List<CreateOrderResult> createOrders(List<CreateOrderCommand> createOrderCommands);
+
+    // Same as above, but run without blocking the caller thread
+    CompletableFuture<CreateOrderResponse> createOrderAsync(CreateOrderCommand createOrderCommand);
 
-    TrackOrderResponse trackOrder(@Valid TrackOrderQuery trackOrderQuery);
+    CompletableFuture<TrackOrderResponse> trackOrderAsync(TrackOrderQuery trackOrderQuery);
 }
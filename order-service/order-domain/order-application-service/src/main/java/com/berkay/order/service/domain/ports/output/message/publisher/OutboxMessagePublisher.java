@@ -0,0 +1,12 @@
+package com.berkay.order.service.domain.ports.output.message.publisher;
+
+import com.berkay.outbox.OutboxMessage;
+import com.berkay.outbox.OutboxStatus;
+
+import java.util.function.BiConsumer;
+
+public interface OutboxMessagePublisher<T extends OutboxMessage> {
+
+    // Must return without waiting for the broker, the callback is called with the outcome once it is known
+    void publish(T outboxMessage, BiConsumer<T, OutboxStatus> outboxCallback);
+}
@@ -0,0 +1,7 @@
+package com.berkay.order.service.domain.ports.output.message.publisher.payment;
+
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentOutboxMessage;
+import com.berkay.order.service.domain.ports.output.message.publisher.OutboxMessagePublisher;
+
+public interface PaymentRequestMessagePublisher extends OutboxMessagePublisher<OrderPaymentOutboxMessage> {
+}
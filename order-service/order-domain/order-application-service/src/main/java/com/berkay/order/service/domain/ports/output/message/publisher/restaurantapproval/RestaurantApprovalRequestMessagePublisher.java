@@ -0,0 +1,7 @@
+package com.berkay.order.service.domain.ports.output.message.publisher.restaurantapproval;
+
+import com.berkay.order.service.domain.outbox.model.approval.OrderApprovalOutboxMessage;
+import com.berkay.order.service.domain.ports.output.message.publisher.OutboxMessagePublisher;
+
+public interface RestaurantApprovalRequestMessagePublisher extends OutboxMessagePublisher<OrderApprovalOutboxMessage> {
+}
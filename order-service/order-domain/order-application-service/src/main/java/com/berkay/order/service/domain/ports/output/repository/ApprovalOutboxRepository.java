@@ -0,0 +1,6 @@
+package com.berkay.order.service.domain.ports.output.repository;
+
+import com.berkay.order.service.domain.outbox.model.approval.OrderApprovalOutboxMessage;
+
+public interface ApprovalOutboxRepository extends OutboxRepository<OrderApprovalOutboxMessage> {
+}
@@ -4,8 +4,12 @@ import com.berkay.order.service.domain.entity.Customer;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface CustomerRepository {
 
     Optional<Customer> findCustomer(UUID customerId);
+
+    // Used to seed the customer id filter on startup, the caller closes the stream
+    Stream<UUID> findAllCustomerIds();
 }
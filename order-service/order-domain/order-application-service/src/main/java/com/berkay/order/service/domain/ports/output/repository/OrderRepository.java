@@ -1,13 +1,61 @@
 package com.berkay.order.service.domain.ports.output.repository;
 
+import com.berkay.domain.valueobject.OrderId;
+import com.berkay.domain.valueobject.OrderStatus;
 import com.berkay.order.service.domain.entity.Order;
 import com.berkay.order.service.domain.valueobject.TrackingId;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository {
 
     Order save(Order order);
 
+    // Adapters should override this with batched inserts, the caller runs it in one transaction
+    default List<Order> saveAll(List<Order> orders) {
+        List<Order> savedOrders = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            savedOrders.add(save(order));
+        }
+        return savedOrders;
+    }
+
+    // Writes each order only if its stored status is still the one it was read with, so a writer working on a
+    // stale copy can't overwrite a concurrent change: UPDATE ... WHERE id = ? AND order_status = ?
+    // Orders and expected statuses are parallel lists, returns the orders that were written.
+    // Adapters should override this, the default re-reads the orders and is only safe while they are locked.
+    default List<Order> saveAllIfStatus(List<Order> orders, List<OrderStatus> expectedStatuses) {
+        Map<OrderId, OrderStatus> storedStatuses = new HashMap<>();
+        findByIds(orders.stream().map(Order::getId).toList())
+                .forEach(order -> storedStatuses.put(order.getId(), order.getOrderStatus()));
+        List<Order> unchangedOrders = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            if (storedStatuses.get(orders.get(i).getId()) == expectedStatuses.get(i)) {
+                unchangedOrders.add(orders.get(i));
+            }
+        }
+        return unchangedOrders.isEmpty() ? unchangedOrders : saveAll(unchangedOrders);
+    }
+
     Optional<Order> findByTrackingId(TrackingId trackingId);
+
+    Optional<Order> findById(OrderId orderId);
+
+    // Adapters should override this with a single IN query, missing orders are left out
+    default List<Order> findByIds(Collection<OrderId> orderIds) {
+        List<Order> orders = new ArrayList<>(orderIds.size());
+        for (OrderId orderId : orderIds) {
+            findById(orderId).ifPresent(orders::add);
+        }
+        return orders;
+    }
+
+    // Used to rebuild saga timeouts on startup, the caller closes the stream
+    Stream<OrderId> findOrderIdsByOrderStatus(OrderStatus orderStatus);
 }
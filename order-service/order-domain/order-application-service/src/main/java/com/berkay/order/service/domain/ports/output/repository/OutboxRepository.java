@@ -0,0 +1,35 @@
+package com.berkay.order.service.domain.ports.output.repository;
+
+import com.berkay.outbox.OutboxMessage;
+import com.berkay.outbox.OutboxStatus;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Operations every outbox table offers, one sub interface per message type is implemented by the adapters
+public interface OutboxRepository<T extends OutboxMessage> {
+
+    T save(T outboxMessage);
+
+    // Adapters should override this with batched inserts
+    default List<T> saveAll(List<T> outboxMessages) {
+        List<T> savedMessages = new ArrayList<>(outboxMessages.size());
+        for (T outboxMessage : outboxMessages) {
+            savedMessages.add(save(outboxMessage));
+        }
+        return savedMessages;
+    }
+
+    // Claims up to batchSize messages, oldest first, and keeps them locked until the caller's transaction ends.
+    // Rows locked by another relay are skipped, so concurrent relays claim disjoint batches:
+    // SELECT ... WHERE type = ? AND outbox_status IN (?) ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED
+    List<T> claimBatch(String type, List<OutboxStatus> outboxStatuses, int batchSize);
+
+    // One statement for the whole batch: UPDATE ... SET outbox_status = ?, processed_at = ? WHERE id IN (?)
+    void updateOutboxStatus(List<UUID> ids, OutboxStatus outboxStatus, ZonedDateTime processedAt);
+
+    // Returns the number of deleted messages
+    int deleteByTypeAndOutboxStatus(String type, OutboxStatus outboxStatus);
+}
@@ -0,0 +1,6 @@
+package com.berkay.order.service.domain.ports.output.repository;
+
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentOutboxMessage;
+
+public interface PaymentOutboxRepository extends OutboxRepository<OrderPaymentOutboxMessage> {
+}
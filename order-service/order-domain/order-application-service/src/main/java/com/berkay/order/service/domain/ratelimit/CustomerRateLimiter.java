@@ -0,0 +1,62 @@
+package com.berkay.order.service.domain.ratelimit;
+
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.exception.OrderRateLimitException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+// Token bucket rate limit per customer on order creation, checked before anything touches a repository.
+// Buckets of idle customers expire, a returning customer starts with a full bucket again.
+@Slf4j
+@Component
+public class CustomerRateLimiter {
+
+    private final OrderServiceConfigData orderServiceConfigData;
+
+    private final Cache<UUID, TokenBucket> buckets;
+
+    // Bucket time is relative to startup, so it fits the 40 bits TokenBucket keeps for it
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    public CustomerRateLimiter(OrderServiceConfigData orderServiceConfigData) {
+        if (orderServiceConfigData.getCustomerRateLimitBurst() * TokenBucket.MILLI_TOKENS_PER_TOKEN
+                > TokenBucket.MAX_MILLI_TOKENS) {
+            throw new IllegalArgumentException("Customer rate limit burst is too large: " +
+                    orderServiceConfigData.getCustomerRateLimitBurst());
+        }
+        this.orderServiceConfigData = orderServiceConfigData;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(orderServiceConfigData.getCustomerRateLimitMaxCustomers())
+                .expireAfterAccess(Duration.ofMillis(orderServiceConfigData.getCustomerRateLimitIdleExpiryMs()))
+                .build();
+    }
+
+    // Throws OrderRateLimitException if the customer has no token left
+    public void checkRateLimit(UUID customerId) {
+        if (!orderServiceConfigData.getCustomerRateLimitEnabled()) {
+            return;
+        }
+        long nowMs = (System.nanoTime() - startNanos) / 1_000_000;
+        TokenBucket bucket = buckets.get(customerId, id -> new TokenBucket(
+                orderServiceConfigData.getCustomerRateLimitBurst(),
+                orderServiceConfigData.getCustomerRateLimitPermitsPerSecond(),
+                nowMs));
+        if (!bucket.tryTake(nowMs)) {
+            rejectedRequests.increment();
+            log.warn("Order of customer with id: {} is rejected by rate limit", customerId);
+            throw new OrderRateLimitException("Too many orders from customer " + customerId + ", please retry later!");
+        }
+    }
+
+    public long getRejectedRequestCount() {
+        return rejectedRequests.sum();
+    }
+}
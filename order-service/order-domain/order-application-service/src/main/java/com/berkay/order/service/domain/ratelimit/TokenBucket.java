@@ -0,0 +1,45 @@
+package com.berkay.order.service.domain.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock free token bucket. The whole state is one long, the last refill time in milliseconds in the upper
+// 40 bits and the tokens in thousandths of a token in the lower 24 bits, so a refill and a take are one CAS.
+class TokenBucket {
+
+    static final long MILLI_TOKENS_PER_TOKEN = 1_000L;
+    static final long MAX_MILLI_TOKENS = (1L << 24) - 1;
+
+    private static final int TIME_SHIFT = 24;
+
+    private final long capacityMilliTokens;
+    // A rate of n tokens per second is n thousandths of a token per millisecond
+    private final long refillMilliTokensPerMs;
+
+    private final AtomicLong state;
+
+    TokenBucket(long capacityTokens, long refillTokensPerSecond, long nowMs) {
+        this.capacityMilliTokens = capacityTokens * MILLI_TOKENS_PER_TOKEN;
+        this.refillMilliTokensPerMs = refillTokensPerSecond;
+        this.state = new AtomicLong(pack(nowMs, capacityMilliTokens));
+    }
+
+    boolean tryTake(long nowMs) {
+        while (true) {
+            long current = state.get();
+            long lastRefillMs = current >>> TIME_SHIFT;
+            long elapsedMs = Math.max(0, nowMs - lastRefillMs);
+            long milliTokens = Math.min(capacityMilliTokens,
+                    (current & MAX_MILLI_TOKENS) + elapsedMs * refillMilliTokensPerMs);
+            if (milliTokens < MILLI_TOKENS_PER_TOKEN) {
+                return false;
+            }
+            if (state.compareAndSet(current, pack(Math.max(nowMs, lastRefillMs), milliTokens - MILLI_TOKENS_PER_TOKEN))) {
+                return true;
+            }
+        }
+    }
+
+    private static long pack(long timeMs, long milliTokens) {
+        return (timeMs << TIME_SHIFT) | milliTokens;
+    }
+}
@@ -0,0 +1,162 @@
+package com.berkay.order.service.domain.restaurant;
+
+import com.berkay.domain.valueobject.ProductId;
+import com.berkay.domain.valueobject.RestaurantId;
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.entity.Product;
+import com.berkay.order.service.domain.entity.Restaurant;
+import com.berkay.order.service.domain.ports.output.repository.RestaurantRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Caching decorator for the restaurant repository port. Restaurants are cached by id in a size bounded
+// Caffeine cache (W-TinyLFU admission and eviction). Entries are refreshed in the background after
+// refreshAfter and dropped after expireAfter, concurrent misses for the same restaurant share one load.
+// A cached menu only grows: products it doesn't cover yet are loaded together with the cached ones, outside
+// the cache's locks, and the result replaces the version it was merged from.
+// Menus may be served stale until refreshed, RestaurantMessageListener invalidates them on menu changes.
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "order-service", name = "restaurant-cache-enabled", havingValue = "true")
+public class CachingRestaurantRepository implements RestaurantRepository {
+
+    // Merges that keep losing the swap to concurrent ones return their result without caching it
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+
+    private final RestaurantRepository restaurantRepository;
+
+    private final LoadingCache<RestaurantId, Restaurant> restaurants;
+
+    // The repository adapter is injected here, this bean is the primary one for everybody else
+    public CachingRestaurantRepository(RestaurantRepository restaurantRepository,
+                                       OrderServiceConfigData orderServiceConfigData) {
+        this.restaurantRepository = restaurantRepository;
+        this.restaurants = Caffeine.newBuilder()
+                .maximumSize(orderServiceConfigData.getRestaurantCacheMaximumSize())
+                .expireAfterWrite(Duration.ofMillis(orderServiceConfigData.getRestaurantCacheExpireAfterMs()))
+                .refreshAfterWrite(Duration.ofMillis(orderServiceConfigData.getRestaurantCacheRefreshAfterMs()))
+                .recordStats()
+                .build(new RestaurantLoader());
+    }
+
+    @Override
+    public Optional<Restaurant> findRestaurantInformation(Restaurant restaurant) {
+        Restaurant currentRestaurant = restaurants.get(restaurant.getId(), restaurantId -> load(restaurant));
+        // The cached menu doesn't cover the requested products, e.g. they were added after it was loaded.
+        // The merged menu is loaded outside the cache and only swapped in if the entry is still the version it
+        // was merged from. Otherwise the merge is retried on top of the newer version, so no subset is lost,
+        // and a menu invalidated meanwhile is not put back.
+        for (int attempt = 1; currentRestaurant != null && !servesAll(currentRestaurant, restaurant.getProducts());
+             attempt++) {
+            Restaurant mergedRestaurant = loadMerged(currentRestaurant, restaurant.getProducts());
+            Restaurant latestRestaurant = swap(restaurant.getId(), currentRestaurant, mergedRestaurant);
+            if (latestRestaurant == mergedRestaurant || latestRestaurant == null || attempt == MAX_MERGE_ATTEMPTS) {
+                return Optional.ofNullable(mergedRestaurant);
+            }
+            currentRestaurant = latestRestaurant;
+        }
+        return Optional.ofNullable(currentRestaurant);
+    }
+
+    // Call when a restaurant or its menu changed
+    public void invalidate(RestaurantId restaurantId) {
+        restaurants.invalidate(restaurantId);
+    }
+
+    public void invalidateAll() {
+        restaurants.invalidateAll();
+    }
+
+    public double getHitRatio() {
+        return restaurants.stats().hitRate();
+    }
+
+    public double getAverageLoadLatencyNanos() {
+        return restaurants.stats().averageLoadPenalty();
+    }
+
+    public CacheStats getStats() {
+        return restaurants.stats();
+    }
+
+    private Restaurant load(Restaurant restaurant) {
+        return restaurantRepository.findRestaurantInformation(restaurant).orElse(null);
+    }
+
+    // Loads the cached products together with the requested ones, the result is the next version of the menu
+    private Restaurant loadMerged(Restaurant currentRestaurant, List<Product> products) {
+        Map<ProductId, Product> mergedProducts = new LinkedHashMap<>();
+        for (Product product : currentRestaurant.getProducts()) {
+            mergedProducts.put(product.getId(), product);
+        }
+        for (Product product : products) {
+            mergedProducts.putIfAbsent(product.getId(), product);
+        }
+        return nextVersion(currentRestaurant, load(Restaurant.builder()
+                .restaurantId(currentRestaurant.getId())
+                .products(new ArrayList<>(mergedProducts.values()))
+                .build()));
+    }
+
+    // Replaces the entry only if it is still the expected instance (restaurants are equal by id alone, so
+    // asMap().replace can't tell versions apart) and returns the entry that is cached afterwards
+    private Restaurant swap(RestaurantId restaurantId, Restaurant expectedRestaurant, Restaurant nextRestaurant) {
+        return restaurants.asMap().compute(restaurantId, (id, latestRestaurant) ->
+                latestRestaurant == expectedRestaurant ? nextRestaurant : latestRestaurant);
+    }
+
+    private Restaurant nextVersion(Restaurant currentRestaurant, Restaurant loadedRestaurant) {
+        if (loadedRestaurant == null) {
+            return null;
+        }
+        return Restaurant.builder()
+                .restaurantId(loadedRestaurant.getId())
+                .menu(currentRestaurant.getMenu().withProducts(loadedRestaurant.getProducts()))
+                .active(loadedRestaurant.isActive())
+                .build();
+    }
+
+    private boolean servesAll(Restaurant restaurant, List<Product> products) {
+        if (products == null) {
+            return true;
+        }
+        for (Product product : products) {
+            if (restaurant.findProduct(product.getId()) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private class RestaurantLoader implements CacheLoader<RestaurantId, Restaurant> {
+
+        @Override
+        public Restaurant load(RestaurantId restaurantId) {
+            return CachingRestaurantRepository.this.load(Restaurant.builder().restaurantId(restaurantId).build());
+        }
+
+        // Refresh ahead asks for the same products the cached restaurant already has
+        @Override
+        public Restaurant reload(RestaurantId restaurantId, Restaurant oldRestaurant) {
+            log.debug("Refreshing cached restaurant with id: {}", restaurantId.getValue());
+            return nextVersion(oldRestaurant, CachingRestaurantRepository.this.load(Restaurant.builder()
+                    .restaurantId(restaurantId)
+                    .products(oldRestaurant.getProducts())
+                    .build()));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.berkay.order.service.domain.timeout;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+// Hashed timing wheel. Timeouts hash into a bucket by deadline tick and carry the number of full wheel
+// rotations left, so scheduling and cancelling are O(1) no matter how many timeouts are outstanding, and a
+// tick only walks its own bucket. Buckets are only touched by the ticker thread: new and cancelled timeouts
+// are handed over through lock free queues and applied at the start of the next tick.
+@Slf4j
+public final class HashedTimingWheel<K> {
+
+    // Keeps one tick bounded when millions of timeouts are scheduled at once, e.g. on startup
+    static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+
+    private final Bucket<K>[] wheel;
+
+    private final int mask;
+
+    private final Consumer<List<K>> expiryHandler;
+
+    private final Queue<Timeout<K>> scheduledTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Timeout<K>> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder pending = new LongAdder();
+
+    private final LongSupplier nanoClock;
+
+    private final Thread ticker;
+
+    private final long startNanos;
+
+    private long tick;
+
+    private volatile boolean running = true;
+
+    // Wheel size is rounded up to a power of two. The expiry handler runs on the ticker thread with the
+    // keys that expired in one tick, it should hand them off rather than do blocking work.
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize,
+                             Consumer<List<K>> expiryHandler) {
+        this(name, tickDuration, unit, wheelSize, expiryHandler, System::nanoTime);
+    }
+
+    // Without a ticker thread, for tests that set the clock and call advance themselves
+    HashedTimingWheel(long tickDuration, TimeUnit unit, int wheelSize, Consumer<List<K>> expiryHandler,
+                      LongSupplier nanoClock) {
+        this(null, tickDuration, unit, wheelSize, expiryHandler, nanoClock);
+    }
+
+    @SuppressWarnings("unchecked")
+    private HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize,
+                              Consumer<List<K>> expiryHandler, LongSupplier nanoClock) {
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket<>();
+        }
+        this.mask = size - 1;
+        this.expiryHandler = expiryHandler;
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        if (name == null) {
+            this.ticker = null;
+            return;
+        }
+        this.ticker = new Thread(this::run, name);
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    public Timeout<K> schedule(K key, long delay, TimeUnit unit) {
+        Timeout<K> timeout = new Timeout<>(this, key, nanoClock.getAsLong() - startNanos + unit.toNanos(delay));
+        pending.increment();
+        scheduledTimeouts.add(timeout);
+        return timeout;
+    }
+
+    // Timeouts that are scheduled and neither expired nor cancelled yet
+    public long pendingTimeouts() {
+        return pending.sum();
+    }
+
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (nanoClock.getAsLong() - startNanos);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            advance();
+        }
+    }
+
+    // Runs the current tick once its time has passed, called by the ticker thread or by tests without one
+    void advance() {
+        try {
+            removeCancelledTimeouts();
+            transferScheduledTimeouts();
+            expire(wheel[(int) (tick & mask)]);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error in timing wheel tick", e);
+        }
+        tick++;
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout<K> timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            // Not in a bucket yet if it was cancelled before its transfer, the transfer skips it
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduledTimeouts() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout<K> timeout = scheduledTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != Timeout.ACTIVE) {
+                continue;
+            }
+            long deadlineTick = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            // A deadline that is already due goes to the current bucket and expires in this tick
+            wheel[(int) (Math.max(deadlineTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Bucket<K> bucket) {
+        List<K> expiredKeys = null;
+        Timeout<K> timeout = bucket.head;
+        while (timeout != null) {
+            Timeout<K> next = timeout.next;
+            if (timeout.remainingRounds <= 0) {
+                bucket.remove(timeout);
+                if (timeout.state.compareAndSet(Timeout.ACTIVE, Timeout.EXPIRED)) {
+                    pending.decrement();
+                    if (expiredKeys == null) {
+                        expiredKeys = new ArrayList<>();
+                    }
+                    expiredKeys.add(timeout.key);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+        if (expiredKeys != null) {
+            expiryHandler.accept(expiredKeys);
+        }
+    }
+
+    public static final class Timeout<K> {
+        private static final int ACTIVE = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HashedTimingWheel<K> timingWheel;
+        private final K key;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+        private long remainingRounds;
+        private Bucket<K> bucket;
+        private Timeout<K> prev;
+        private Timeout<K> next;
+
+        private Timeout(HashedTimingWheel<K> timingWheel, K key, long deadlineNanos) {
+            this.timingWheel = timingWheel;
+            this.key = key;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        // Returns false if the timeout has already expired or been cancelled
+        public boolean cancel() {
+            if (!state.compareAndSet(ACTIVE, CANCELLED)) {
+                return false;
+            }
+            timingWheel.pending.decrement();
+            timingWheel.cancelledTimeouts.add(this);
+            return true;
+        }
+    }
+
+    // Doubly linked so a cancelled timeout is unlinked in O(1)
+    private static final class Bucket<K> {
+        private Timeout<K> head;
+        private Timeout<K> tail;
+
+        private void add(Timeout<K> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout<K> timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
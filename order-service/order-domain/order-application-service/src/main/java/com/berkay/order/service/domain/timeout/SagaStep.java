@@ -0,0 +1,9 @@
+package com.berkay.order.service.domain.timeout;
+
+import com.berkay.domain.valueobject.OrderId;
+import com.berkay.domain.valueobject.OrderStatus;
+
+// A saga step waiting for a response: the order and the status it is waiting in. A timeout only applies
+// if the order is still in that status when it expires.
+public record SagaStep(OrderId orderId, OrderStatus orderStatus) {
+}
@@ -0,0 +1,145 @@
+package com.berkay.order.service.domain.timeout;
+
+import com.berkay.domain.id.IdGenerator;
+import com.berkay.domain.valueobject.OrderId;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.order.service.domain.OrderDomainService;
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.event.OrderCancelledEvent;
+import com.berkay.order.service.domain.exception.OrderDomainException;
+import com.berkay.order.service.domain.mapper.OrderDataMapper;
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentEventPayload;
+import com.berkay.order.service.domain.outbox.scheduler.payment.PaymentOutboxHelper;
+import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
+import com.berkay.order.service.domain.valueobject.FailureReasonRegistry;
+import com.berkay.order.service.domain.valueobject.OrderTransition;
+import com.berkay.order.service.domain.valueobject.OrderTransitionResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class SagaTimeoutHelper {
+
+    private final OrderDomainService orderDomainService;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderDataMapper orderDataMapper;
+
+    private final PaymentOutboxHelper paymentOutboxHelper;
+
+    private final IdGenerator idGenerator;
+
+    public SagaTimeoutHelper(OrderDomainService orderDomainService,
+                             OrderRepository orderRepository,
+                             OrderDataMapper orderDataMapper,
+                             PaymentOutboxHelper paymentOutboxHelper,
+                             IdGenerator idGenerator) {
+        this.orderDomainService = orderDomainService;
+        this.orderRepository = orderRepository;
+        this.orderDataMapper = orderDataMapper;
+        this.paymentOutboxHelper = paymentOutboxHelper;
+        this.idGenerator = idGenerator;
+    }
+
+    // Cancels orders whose saga step timed out: pending orders are cancelled, paid orders start payment
+    // cancellation. Both write a payment cancel request, a pending order may still get charged after its
+    // timeout. Steps the order has already moved on from, before or while they are expired, are skipped.
+    // Returns the changed orders.
+    @Transactional
+    public List<Order> expireSagaSteps(List<SagaStep> sagaSteps) {
+        Set<OrderId> orderIds = new LinkedHashSet<>();
+        sagaSteps.forEach(sagaStep -> orderIds.add(sagaStep.orderId()));
+        Map<OrderId, Order> orders = new HashMap<>();
+        orderRepository.findByIds(orderIds).forEach(order -> orders.put(order.getId(), order));
+
+        List<Order> pendingOrders = new ArrayList<>();
+        List<Order> paidOrders = new ArrayList<>();
+        for (SagaStep sagaStep : sagaSteps) {
+            Order order = orders.remove(sagaStep.orderId());
+            if (order == null || order.getOrderStatus() != sagaStep.orderStatus()) {
+                continue;
+            }
+            if (order.getOrderStatus() == OrderStatus.PENDING) {
+                pendingOrders.add(order);
+            } else if (order.getOrderStatus() == OrderStatus.PAID) {
+                paidOrders.add(order);
+            }
+        }
+
+        List<Order> transitionedOrders = new ArrayList<>(pendingOrders.size() + paidOrders.size());
+        List<OrderStatus> expectedStatuses = new ArrayList<>(pendingOrders.size() + paidOrders.size());
+        Map<OrderId, OrderPaymentEventPayload> cancelPayloads = new HashMap<>();
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+        for (OrderTransitionResult result : orderDomainService.applyTransitions(pendingOrders, OrderTransition.CANCEL,
+                List.of(FailureReasonRegistry.PAYMENT_TIMEOUT))) {
+            if (result.isApplied()) {
+                transitionedOrders.add(result.getOrder());
+                expectedStatuses.add(result.getPreviousStatus());
+                cancelPayloads.put(result.getOrder().getId(), orderDataMapper.orderCancelledEventToOrderPaymentEventPayload(
+                        new OrderCancelledEvent(result.getOrder(), now)));
+            }
+        }
+        for (OrderTransitionResult result : orderDomainService.applyTransitions(paidOrders, OrderTransition.INIT_CANCEL,
+                List.of(FailureReasonRegistry.APPROVAL_TIMEOUT))) {
+            if (result.isApplied()) {
+                transitionedOrders.add(result.getOrder());
+                expectedStatuses.add(result.getPreviousStatus());
+                cancelPayloads.put(result.getOrder().getId(), orderDataMapper.orderCancelledEventToOrderPaymentEventPayload(
+                        (OrderCancelledEvent) result.getOrderEvent()));
+            }
+        }
+
+        if (transitionedOrders.isEmpty()) {
+            return transitionedOrders;
+        }
+        // A payment or approval response may have been applied since the orders were read, those orders are left
+        // to it. Only orders still in the timed out status are written.
+        List<Order> changedOrders = orderRepository.saveAllIfStatus(transitionedOrders, expectedStatuses);
+        if (changedOrders == null) {
+            log.error("Orders could not be saved!");
+            throw new OrderDomainException("Orders could not be saved!");
+        }
+        if (changedOrders.size() != transitionedOrders.size()) {
+            log.info("{} timed out orders were changed concurrently and are skipped",
+                    transitionedOrders.size() - changedOrders.size());
+        }
+        List<OrderPaymentEventPayload> cancelledPayloads = new ArrayList<>();
+        List<OrderPaymentEventPayload> cancellingPayloads = new ArrayList<>();
+        for (Order order : changedOrders) {
+            (order.getOrderStatus() == OrderStatus.CANCELLED ? cancelledPayloads : cancellingPayloads)
+                    .add(cancelPayloads.get(order.getId()));
+        }
+        // The saga id of the original request isn't kept on the order, the cancel request starts its own
+        if (!cancelledPayloads.isEmpty()) {
+            paymentOutboxHelper.saveOutboxMessages(cancelledPayloads, OrderStatus.CANCELLED,
+                    newSagaIds(cancelledPayloads.size()));
+        }
+        if (!cancellingPayloads.isEmpty()) {
+            paymentOutboxHelper.saveOutboxMessages(cancellingPayloads, OrderStatus.CANCELLING,
+                    newSagaIds(cancellingPayloads.size()));
+        }
+        log.info("{} of {} timed out saga steps cancelled their order", changedOrders.size(), sagaSteps.size());
+        return changedOrders;
+    }
+
+    private List<UUID> newSagaIds(int count) {
+        List<UUID> sagaIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sagaIds.add(idGenerator.generate());
+        }
+        return sagaIds;
+    }
+}
@@ -0,0 +1,187 @@
+package com.berkay.order.service.domain.timeout;
+
+import com.berkay.domain.valueobject.OrderId;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
+import com.berkay.order.service.domain.track.OrderTrackingProjection;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Keeps one deadline per order waiting for a saga response: the payment response while PENDING and the
+// restaurant approval while PAID. Deadlines live on a hashed timing wheel instead of polling the database
+// for stale orders, and are rebuilt from the repository on startup with a full timeout. Call track with
+// every committed order change, a new status replaces or cancels the order's deadline.
+@Slf4j
+@Component
+public class SagaTimeoutScheduler {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final SagaTimeoutHelper sagaTimeoutHelper;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderTrackingProjection orderTrackingProjection;
+
+    private final OrderServiceConfigData orderServiceConfigData;
+
+    private final boolean enabled;
+
+    // Only created when saga timeouts are enabled, like the expiry worker
+    private final HashedTimingWheel<SagaStep> timingWheel;
+
+    private final Map<OrderId, HashedTimingWheel.Timeout<SagaStep>> timeouts = new ConcurrentHashMap<>();
+
+    // Unbounded so the ticker never blocks on it, a burst of expiries waits here for the expiry worker
+    private final BlockingQueue<SagaStep> expiredSteps = new LinkedBlockingQueue<>();
+
+    private final Thread expiryWorker;
+
+    private final LongAdder expired = new LongAdder();
+
+    private volatile boolean running = true;
+
+    public SagaTimeoutScheduler(SagaTimeoutHelper sagaTimeoutHelper,
+                                OrderRepository orderRepository,
+                                OrderTrackingProjection orderTrackingProjection,
+                                OrderServiceConfigData orderServiceConfigData) {
+        this.sagaTimeoutHelper = sagaTimeoutHelper;
+        this.orderRepository = orderRepository;
+        this.orderTrackingProjection = orderTrackingProjection;
+        this.orderServiceConfigData = orderServiceConfigData;
+        this.enabled = orderServiceConfigData.getSagaTimeoutEnabled();
+        if (!enabled) {
+            this.timingWheel = null;
+            this.expiryWorker = null;
+            return;
+        }
+        this.timingWheel = new HashedTimingWheel<>("saga-timeout-ticker",
+                orderServiceConfigData.getSagaTimeoutTickMs(), TimeUnit.MILLISECONDS,
+                orderServiceConfigData.getSagaTimeoutWheelSize(), expiredSteps::addAll);
+        this.expiryWorker = new Thread(this::processExpiredSteps, "saga-timeout-expiry");
+        this.expiryWorker.setDaemon(true);
+        this.expiryWorker.start();
+    }
+
+    public void track(Order order) {
+        if (!enabled) {
+            return;
+        }
+        long timeoutMs = timeoutMs(order.getOrderStatus());
+        HashedTimingWheel.Timeout<SagaStep> previous = timeoutMs < 0
+                ? timeouts.remove(order.getId())
+                : timeouts.put(order.getId(), timingWheel.schedule(new SagaStep(order.getId(), order.getOrderStatus()),
+                timeoutMs, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Saga timeouts are disabled");
+            return;
+        }
+        for (OrderStatus orderStatus : List.of(OrderStatus.PENDING, OrderStatus.PAID)) {
+            long timeoutMs = timeoutMs(orderStatus);
+            try (Stream<OrderId> orderIds = orderRepository.findOrderIdsByOrderStatus(orderStatus)) {
+                // Orders tracked since startup already have a newer deadline
+                orderIds.forEach(orderId -> timeouts.computeIfAbsent(orderId, id ->
+                        timingWheel.schedule(new SagaStep(id, orderStatus), timeoutMs, TimeUnit.MILLISECONDS)));
+            }
+        }
+        log.info("Saga timeouts are rebuilt with {} outstanding orders", timeouts.size());
+    }
+
+    public long getOutstandingTimeoutCount() {
+        return enabled ? timingWheel.pendingTimeouts() : 0;
+    }
+
+    public long getExpiredTimeoutCount() {
+        return expired.sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (!enabled) {
+            return;
+        }
+        timingWheel.stop();
+        try {
+            expiryWorker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long timeoutMs(OrderStatus orderStatus) {
+        return switch (orderStatus) {
+            case PENDING -> orderServiceConfigData.getSagaPaymentTimeoutMs();
+            case PAID -> orderServiceConfigData.getSagaApprovalTimeoutMs();
+            default -> -1;
+        };
+    }
+
+    private void processExpiredSteps() {
+        int batchSize = orderServiceConfigData.getSagaTimeoutBatchSize();
+        List<SagaStep> batch = new ArrayList<>(batchSize);
+        while (running || !expiredSteps.isEmpty()) {
+            try {
+                SagaStep first = expiredSteps.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                expiredSteps.drainTo(batch, batchSize - 1);
+                expire(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in saga timeout expiry worker", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void expire(List<SagaStep> sagaSteps) {
+        // The order may have been tracked again since, then its entry holds a newer deadline
+        sagaSteps.forEach(sagaStep -> timeouts.computeIfPresent(sagaStep.orderId(),
+                (orderId, timeout) -> timeout.getKey() == sagaStep ? null : timeout));
+        try {
+            List<Order> changedOrders = sagaTimeoutHelper.expireSagaSteps(sagaSteps);
+            expired.add(changedOrders.size());
+            changedOrders.forEach(orderTrackingProjection::apply);
+        } catch (RuntimeException e) {
+            if (sagaSteps.size() == 1) {
+                // Most likely the database is unavailable, the step is tried again later instead of being dropped
+                log.error("Timed out saga step for order with id: {} could not be applied, retrying later",
+                        sagaSteps.get(0).orderId().getValue(), e);
+                SagaStep sagaStep = sagaSteps.get(0);
+                timeouts.computeIfAbsent(sagaStep.orderId(), orderId -> timingWheel.schedule(sagaStep,
+                        orderServiceConfigData.getSagaTimeoutRetryDelayMs(), TimeUnit.MILLISECONDS));
+                return;
+            }
+            log.warn("Batch of {} timed out saga steps failed, applying them one by one", sagaSteps.size(), e);
+            sagaSteps.forEach(sagaStep -> expire(List.of(sagaStep)));
+        }
+    }
+}
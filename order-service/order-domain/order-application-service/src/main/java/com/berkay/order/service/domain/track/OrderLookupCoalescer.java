@@ -0,0 +1,70 @@
+package com.berkay.order.service.domain.track;
+
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.valueobject.TrackingId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Single flight for order lookups by tracking id: while one lookup for a tracking id is running, concurrent
+// callers for the same id wait for its result instead of querying the repository again. Nothing is cached,
+// the entry is removed as soon as the lookup completes.
+@Slf4j
+@Component
+public class OrderLookupCoalescer {
+
+    private final ConcurrentHashMap<UUID, CompletableFuture<Optional<Order>>> inFlightLookups = new ConcurrentHashMap<>();
+
+    private final LongAdder executedLookups = new LongAdder();
+
+    private final LongAdder coalescedLookups = new LongAdder();
+
+    public Optional<Order> findOrder(TrackingId trackingId, Supplier<Optional<Order>> lookup) {
+        UUID key = trackingId.getValue();
+        CompletableFuture<Optional<Order>> ownLookup = new CompletableFuture<>();
+        CompletableFuture<Optional<Order>> runningLookup = inFlightLookups.putIfAbsent(key, ownLookup);
+        if (runningLookup != null) {
+            coalescedLookups.increment();
+            return await(runningLookup);
+        }
+
+        executedLookups.increment();
+        try {
+            Optional<Order> order = lookup.get();
+            ownLookup.complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            ownLookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLookups.remove(key, ownLookup);
+        }
+    }
+
+    public long getExecutedLookupCount() {
+        return executedLookups.sum();
+    }
+
+    public long getCoalescedLookupCount() {
+        return coalescedLookups.sum();
+    }
+
+    // Waiters get the same exception the executing caller got
+    private Optional<Order> await(CompletableFuture<Optional<Order>> runningLookup) {
+        try {
+            return runningLookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+}
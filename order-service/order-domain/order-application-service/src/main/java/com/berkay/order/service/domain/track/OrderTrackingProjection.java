@@ -0,0 +1,118 @@
+package com.berkay.order.service.domain.track;
+
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.event.OrderEvent;
+import com.berkay.order.service.domain.valueobject.TrackingId;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+// Tracking read model kept up to date from order events, so polling clients don't hit the order repository.
+// Orders in flight and terminal orders are held in separate size bounded maps: in flight orders expire after
+// a max staleness (they may be changed by another instance), terminal orders never change and are only
+// evicted when the map is full. Caffeine picks the victim by W-TinyLFU, so an order polled often outlives one
+// tracked once even if that was more recent. Only committed changes should be applied.
+@Slf4j
+@Component
+public class OrderTrackingProjection {
+
+    private final boolean enabled;
+
+    private final Cache<UUID, OrderTrackingView> activeOrders;
+
+    private final Cache<UUID, OrderTrackingView> terminalOrders;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public OrderTrackingProjection(OrderServiceConfigData orderServiceConfigData) {
+        this.enabled = orderServiceConfigData.getTrackingProjectionEnabled();
+        this.activeOrders = Caffeine.newBuilder()
+                .maximumSize(orderServiceConfigData.getTrackingProjectionMaxActiveOrders())
+                .expireAfterWrite(Duration.ofMillis(orderServiceConfigData.getTrackingProjectionActiveMaxStalenessMs()))
+                .build();
+        this.terminalOrders = Caffeine.newBuilder()
+                .maximumSize(orderServiceConfigData.getTrackingProjectionMaxTerminalOrders())
+                .build();
+    }
+
+    public void onOrderEvent(OrderEvent orderEvent) {
+        apply(orderEvent.getOrder());
+    }
+
+    // Call after the order change is committed
+    public void apply(Order order) {
+        if (enabled) {
+            put(OrderTrackingView.of(order), true);
+        }
+    }
+
+    // Fills the projection after a miss, it doesn't overwrite a view an event put in the meantime
+    public void fill(Order order) {
+        if (enabled) {
+            put(OrderTrackingView.of(order), false);
+        }
+    }
+
+    public Optional<OrderTrackingView> find(TrackingId trackingId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        UUID key = trackingId.getValue();
+        OrderTrackingView view = activeOrders.getIfPresent(key);
+        if (view == null) {
+            view = terminalOrders.getIfPresent(key);
+        }
+        if (view == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return Optional.ofNullable(view);
+    }
+
+    public void evict(TrackingId trackingId) {
+        activeOrders.invalidate(trackingId.getValue());
+        terminalOrders.invalidate(trackingId.getValue());
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getActiveOrderCount() {
+        return activeOrders.estimatedSize();
+    }
+
+    public long getTerminalOrderCount() {
+        return terminalOrders.estimatedSize();
+    }
+
+    private void put(OrderTrackingView view, boolean overwrite) {
+        UUID key = view.getTrackingId();
+        if (view.isTerminal()) {
+            if (overwrite) {
+                terminalOrders.put(key, view);
+            } else {
+                terminalOrders.asMap().putIfAbsent(key, view);
+            }
+            activeOrders.invalidate(key);
+        } else if (overwrite) {
+            activeOrders.put(key, view);
+        } else if (terminalOrders.getIfPresent(key) == null) {
+            activeOrders.asMap().putIfAbsent(key, view);
+        }
+    }
+}
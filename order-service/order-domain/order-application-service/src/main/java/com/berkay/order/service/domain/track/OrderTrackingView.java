@@ -0,0 +1,53 @@
+package com.berkay.order.service.domain.track;
+
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.order.service.domain.entity.Order;
+
+import java.util.UUID;
+
+// Read model of an order as a tracking client sees it, failure reasons stay as codes and parameters until rendered
+public final class OrderTrackingView {
+
+    private final UUID trackingId;
+    private final OrderStatus orderStatus;
+    private final int[] failureCodes;
+    private final String[] failureParameters;
+
+    private OrderTrackingView(UUID trackingId, OrderStatus orderStatus, int[] failureCodes,
+                              String[] failureParameters) {
+        this.trackingId = trackingId;
+        this.orderStatus = orderStatus;
+        this.failureCodes = failureCodes;
+        this.failureParameters = failureParameters;
+    }
+
+    public static OrderTrackingView of(Order order) {
+        int[] codes = order.getFailureCodes();
+        String[] parameters = order.getFailureParameters();
+        return new OrderTrackingView(order.getTrackingId().getValue(),
+                order.getOrderStatus(),
+                codes.length == 0 ? codes : codes.clone(),
+                parameters == null ? null : parameters.clone());
+    }
+
+    // Approved and cancelled orders don't change anymore
+    public boolean isTerminal() {
+        return orderStatus == OrderStatus.APPROVED || orderStatus == OrderStatus.CANCELLED;
+    }
+
+    public UUID getTrackingId() {
+        return trackingId;
+    }
+
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public int[] getFailureCodes() {
+        return failureCodes;
+    }
+
+    public String[] getFailureParameters() {
+        return failureParameters;
+    }
+}
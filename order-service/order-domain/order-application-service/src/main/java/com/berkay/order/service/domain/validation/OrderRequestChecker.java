@@ -0,0 +1,77 @@
+package com.berkay.order.service.domain.validation;
+
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.dto.create.CreateOrderCommand;
+import com.berkay.order.service.domain.dto.create.CreateOrderCommandValidator;
+import com.berkay.order.service.domain.dto.track.TrackOrderQuery;
+import com.berkay.order.service.domain.dto.track.TrackOrderQueryValidator;
+import com.berkay.validation.DtoValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+// Checks create commands and track queries before they reach the handlers, so the application service needs no
+// method validation proxy. By default the validators generated at compile time are used, they run the DTO
+// constraints in straight-line code. The reflective Hibernate Validator path is kept behind
+// order-service.create-order-generated-validation=false. Both throw a ValidationException.
+@Slf4j
+@Component
+public class OrderRequestChecker {
+
+    private final Validator validator;
+
+    private final OrderServiceConfigData orderServiceConfigData;
+
+    public OrderRequestChecker(Validator validator, OrderServiceConfigData orderServiceConfigData) {
+        this.validator = validator;
+        this.orderServiceConfigData = orderServiceConfigData;
+    }
+
+    public void check(CreateOrderCommand createOrderCommand) {
+        if (createOrderCommand == null) {
+            throw new ValidationException("Create order command must not be null!");
+        }
+        List<String> violations = validate(createOrderCommand, CreateOrderCommandValidator.INSTANCE);
+        if (!violations.isEmpty()) {
+            log.warn("Create order command for customer with id: {} is not valid: {}",
+                    createOrderCommand.getCustomerId(), violations);
+            throw new ValidationException("Create order command is not valid: " + String.join(", ", violations));
+        }
+    }
+
+    // A batch is rejected as a whole, as it was with method validation
+    public void checkAll(List<CreateOrderCommand> createOrderCommands) {
+        if (createOrderCommands == null) {
+            throw new ValidationException("Create order commands must not be null!");
+        }
+        createOrderCommands.forEach(this::check);
+    }
+
+    public void check(TrackOrderQuery trackOrderQuery) {
+        if (trackOrderQuery == null) {
+            throw new ValidationException("Track order query must not be null!");
+        }
+        List<String> violations = validate(trackOrderQuery, TrackOrderQueryValidator.INSTANCE);
+        if (!violations.isEmpty()) {
+            log.warn("Track order query is not valid: {}", violations);
+            throw new ValidationException("Track order query is not valid: " + String.join(", ", violations));
+        }
+    }
+
+    private <T> List<String> validate(T request, DtoValidator<T> dtoValidator) {
+        if (orderServiceConfigData.getCreateOrderGeneratedValidation()) {
+            return dtoValidator.validate(request);
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return List.of();
+    }
+}
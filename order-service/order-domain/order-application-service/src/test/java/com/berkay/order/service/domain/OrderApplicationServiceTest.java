@@ -1,33 +1,105 @@
 package com.berkay.order.service.domain;
 
+import com.berkay.domain.id.IdGenerator;
 import com.berkay.domain.valueobject.*;
+import com.berkay.order.service.domain.admission.RestaurantAdmissionController;
+import com.berkay.order.service.domain.approval.DecodedApprovalResponse;
+import com.berkay.order.service.domain.approval.RestaurantApprovalResponseHelper;
+import com.berkay.order.service.domain.approval.RestaurantApprovalResponsePipeline;
+import com.berkay.order.service.domain.config.OrderServiceConfigData;
+import com.berkay.order.service.domain.customer.CustomerIdFilter;
 import com.berkay.order.service.domain.dto.create.CreateOrderCommand;
 import com.berkay.order.service.domain.dto.create.CreateOrderResponse;
+import com.berkay.order.service.domain.dto.create.CreateOrderResult;
+import com.berkay.order.service.domain.dto.message.PaymentResponse;
+import com.berkay.order.service.domain.dto.message.RestaurantAprovalResponse;
 import com.berkay.order.service.domain.dto.create.OrderAddress;
 import com.berkay.order.service.domain.dto.create.OrderItem;
+import com.berkay.order.service.domain.dto.track.TrackOrderQuery;
+import com.berkay.order.service.domain.dto.track.TrackOrderResponse;
 import com.berkay.order.service.domain.entity.Customer;
 import com.berkay.order.service.domain.entity.Order;
 import com.berkay.order.service.domain.entity.Product;
 import com.berkay.order.service.domain.entity.Restaurant;
+import com.berkay.order.service.domain.event.OrderPaidEvent;
 import com.berkay.order.service.domain.exception.OrderDomainException;
+import com.berkay.order.service.domain.exception.OrderOverloadException;
+import com.berkay.order.service.domain.exception.OrderRateLimitException;
 import com.berkay.order.service.domain.mapper.OrderDataMapper;
+import com.berkay.order.service.domain.ports.input.message.listener.customer.CustomerMessageListener;
+import com.berkay.order.service.domain.ports.input.message.listener.payment.PaymentResponseMessageListener;
+import com.berkay.order.service.domain.ports.input.message.listener.restaurantapproval.RestaurantApprovalResponseMessageListener;
 import com.berkay.order.service.domain.ports.input.service.OrderApplicationService;
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentEventPayload;
+import com.berkay.order.service.domain.outbox.model.payment.OrderPaymentOutboxMessage;
+import com.berkay.order.service.domain.outbox.scheduler.payment.PaymentOutboxScheduler;
+import com.berkay.order.service.domain.payment.PaymentResponseDispatcher;
+import com.berkay.order.service.domain.ports.output.message.publisher.payment.PaymentRequestMessagePublisher;
+import com.berkay.order.service.domain.ports.output.repository.ApprovalOutboxRepository;
 import com.berkay.order.service.domain.ports.output.repository.CustomerRepository;
 import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
+import com.berkay.order.service.domain.ports.output.repository.PaymentOutboxRepository;
 import com.berkay.order.service.domain.ports.output.repository.RestaurantRepository;
+import com.berkay.order.service.domain.ratelimit.CustomerRateLimiter;
+import com.berkay.order.service.domain.restaurant.CachingRestaurantRepository;
+import com.berkay.order.service.domain.timeout.SagaStep;
+import com.berkay.order.service.domain.timeout.SagaTimeoutHelper;
+import com.berkay.order.service.domain.timeout.SagaTimeoutScheduler;
+import com.berkay.order.service.domain.track.OrderLookupCoalescer;
+import com.berkay.order.service.domain.valueobject.FailureReasonRegistry;
+import com.berkay.order.service.domain.valueobject.OrderInitiationResult;
+import com.berkay.order.service.domain.valueobject.OrderTransition;
+import com.berkay.order.service.domain.valueobject.OrderTransitionResult;
+import com.berkay.order.service.domain.valueobject.TrackingId;
+import com.berkay.outbox.OutboxStatus;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import static com.berkay.order.service.domain.outbox.OrderSagaConstants.ORDER_SAGA_NAME;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -49,22 +121,78 @@ public class OrderApplicationServiceTest {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
-//    @Autowired
-//    private PaymentOutboxRepository paymentOutboxRepository;
-//
+    @Autowired
+    private CustomerIdFilter customerIdFilter;
+
+    @Autowired
+    private CustomerMessageListener customerMessageListener;
+
+    @Autowired
+    private RestaurantAdmissionController restaurantAdmissionController;
+
+    @Autowired
+    private CustomerRateLimiter customerRateLimiter;
+
+    @Autowired
+    private PaymentOutboxRepository paymentOutboxRepository;
+
+    @Autowired
+    private PaymentRequestMessagePublisher paymentRequestMessagePublisher;
+
+    @Autowired
+    private PaymentOutboxScheduler paymentOutboxScheduler;
+
+    @Autowired
+    private ApprovalOutboxRepository approvalOutboxRepository;
+
+    @Autowired
+    private PaymentResponseDispatcher paymentResponseDispatcher;
+
+    @Autowired
+    private PaymentResponseMessageListener paymentResponseMessageListener;
+
+    @Autowired
+    private RestaurantApprovalResponseMessageListener restaurantApprovalResponseMessageListener;
+
+    @Autowired
+    private RestaurantApprovalResponsePipeline restaurantApprovalResponsePipeline;
+
+    @Autowired
+    private RestaurantApprovalResponseHelper restaurantApprovalResponseHelper;
+
+    @Autowired
+    private OrderLookupCoalescer orderLookupCoalescer;
+
+    @Autowired
+    private SagaTimeoutScheduler sagaTimeoutScheduler;
+
+    @Autowired
+    private SagaTimeoutHelper sagaTimeoutHelper;
+
+    @Autowired
+    private OrderServiceConfigData orderServiceConfigData;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
 //    @Autowired
 //    private ObjectMapper objectMapper;
 
     private CreateOrderCommand createOrderCommand;
     private CreateOrderCommand createOrderCommandWrongPrice;
     private CreateOrderCommand createOrderCommandWrongProductPrice;
+    private CreateOrderCommand createOrderCommandUnknownProduct;
     private final UUID CUSTOMER_ID = UUID.fromString("d215b5f8-0249-4dc5-89a3-51fd148cfb41");
+    private final UUID UNKNOWN_CUSTOMER_ID = UUID.fromString("d215b5f8-0249-4dc5-89a3-51fd148cfb42");
+    private final UUID RATE_LIMITED_CUSTOMER_ID = UUID.fromString("d215b5f8-0249-4dc5-89a3-51fd148cfb43");
     private final UUID RESTAURANT_ID = UUID.fromString("d215b5f8-0249-4dc5-89a3-51fd148cfb45");
+    private final UUID EXPENSIVE_RESTAURANT_ID = UUID.fromString("d215b5f8-0249-4dc5-89a3-51fd148cfb46");
     private final UUID PRODUCT_ID = UUID.fromString("d215b5f8-0249-4dc5-89a3-51fd148cfb48");
+    private final UUID UNKNOWN_PRODUCT_ID = UUID.fromString("d215b5f8-0249-4dc5-89a3-51fd148cfb49");
     private final UUID ORDER_ID = UUID.fromString("15a497c1-0f4b-4eff-b9f4-c402c8c07afb");
     private final BigDecimal PRICE = new BigDecimal("200.00");
 
-//    private final UUID SAGA_ID = UUID.fromString("15a497c1-0f4b-4eff-b9f4-c402c8c07afa");
+    private final UUID SAGA_ID = UUID.fromString("15a497c1-0f4b-4eff-b9f4-c402c8c07afa");
 //    private final BigDecimal PRICE = new BigDecimal("200.00");
 
     @BeforeAll
@@ -138,6 +266,29 @@ public class OrderApplicationServiceTest {
                                 .build()))
                 .build();
 
+        createOrderCommandUnknownProduct = CreateOrderCommand.builder()
+                .customerId(CUSTOMER_ID)
+                .restaurantId(RESTAURANT_ID)
+                .address(OrderAddress.builder()
+                        .street("street_1")
+                        .postalCode("1000AB")
+                        .city("Paris")
+                        .build())
+                .price(new BigDecimal("100.00"))
+                .items(List.of(OrderItem.builder()
+                                .productId(PRODUCT_ID)
+                                .quantity(1)
+                                .price(new BigDecimal("50.00"))
+                                .subTotal(new BigDecimal("50.00"))
+                                .build(),
+                        OrderItem.builder()
+                                .productId(UNKNOWN_PRODUCT_ID)
+                                .quantity(1)
+                                .price(new BigDecimal("50.00"))
+                                .subTotal(new BigDecimal("50.00"))
+                                .build()))
+                .build();
+
         Customer customer = new Customer();
         customer.setId(new CustomerId(CUSTOMER_ID));
 
@@ -152,10 +303,15 @@ public class OrderApplicationServiceTest {
         order.setId(new OrderId(ORDER_ID));
 
         when(customerRepository.findCustomer(CUSTOMER_ID)).thenReturn(Optional.of(customer));
+        customerIdFilter.register(CUSTOMER_ID);
         when(restaurantRepository.findRestaurantInformation(orderDataMapper.createOrderCommandToRestaurant(createOrderCommand)))
                 .thenReturn(Optional.of(restaurantResponse));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
-        //when(paymentOutboxRepository.save(any(OrderPaymentOutboxMessage.class))).thenReturn(getOrderPaymentOutboxMessage());
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.saveAllIfStatus(anyList(), anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentOutboxRepository.save(any(OrderPaymentOutboxMessage.class))).thenReturn(getOrderPaymentOutboxMessage());
+        when(paymentOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(approvalOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
     }
 
     @Test
@@ -164,6 +320,155 @@ public class OrderApplicationServiceTest {
         assertEquals(OrderStatus.PENDING, createOrderResponse.getOrderStatus());
         assertEquals("Order Created Successfully", createOrderResponse.getMessage());
         assertNotNull(createOrderResponse.getOrderTrackingId());
+        verify(paymentOutboxRepository, atLeastOnce()).save(any(OrderPaymentOutboxMessage.class));
+    }
+
+    @Test
+    public void testCreateOrderAsync() {
+        CreateOrderResponse createOrderResponse = orderApplicationService.createOrderAsync(createOrderCommand).join();
+        assertEquals(OrderStatus.PENDING, createOrderResponse.getOrderStatus());
+        assertEquals("Order Created Successfully", createOrderResponse.getMessage());
+        assertNotNull(createOrderResponse.getOrderTrackingId());
+    }
+
+    @Test
+    public void testCreateOrders() {
+        CreateOrderCommand createOrderCommandUnknownCustomer = CreateOrderCommand.builder()
+                .customerId(UNKNOWN_CUSTOMER_ID)
+                .restaurantId(RESTAURANT_ID)
+                .address(createOrderCommand.getAddress())
+                .price(PRICE)
+                .items(createOrderCommand.getItems())
+                .build();
+        List<CreateOrderResult> createOrderResults = orderApplicationService.createOrders(List.of(createOrderCommand,
+                createOrderCommandWrongPrice, createOrderCommandUnknownCustomer, createOrderCommand));
+        assertEquals(4, createOrderResults.size());
+        assertTrue(createOrderResults.get(0).isCreated());
+        assertEquals(OrderStatus.PENDING, createOrderResults.get(0).getCreateOrderResponse().getOrderStatus());
+        assertFalse(createOrderResults.get(1).isCreated());
+        assertEquals("Total price (250.00) is not equal to order items total (200.00)!",
+                createOrderResults.get(1).getFailureMessage());
+        assertFalse(createOrderResults.get(2).isCreated());
+        assertEquals("Could not find customer with id: " + UNKNOWN_CUSTOMER_ID, createOrderResults.get(2).getFailureMessage());
+        assertTrue(createOrderResults.get(3).isCreated());
+        assertNotEquals(createOrderResults.get(0).getCreateOrderResponse().getOrderTrackingId(),
+                createOrderResults.get(3).getCreateOrderResponse().getOrderTrackingId());
+    }
+
+    @Test
+    public void testTrackOrderFromProjection() {
+        CreateOrderResponse createOrderResponse = orderApplicationService.createOrder(createOrderCommand);
+        TrackOrderResponse trackOrderResponse = orderApplicationService.trackOrder(TrackOrderQuery.builder()
+                .orderTrackingId(createOrderResponse.getOrderTrackingId())
+                .build());
+        assertEquals(OrderStatus.PENDING, trackOrderResponse.getOrderStatus());
+        assertTrue(trackOrderResponse.getFailureMessages().isEmpty());
+        verify(orderRepository, never()).findByTrackingId(new TrackingId(createOrderResponse.getOrderTrackingId()));
+    }
+
+    @Test
+    public void testTrackOrderCoalescesConcurrentLookups() throws Exception {
+        Order order = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        order.initializeOrder(idGenerator);
+        TrackingId trackingId = order.getTrackingId();
+        TrackOrderQuery trackOrderQuery = TrackOrderQuery.builder().orderTrackingId(trackingId.getValue()).build();
+        int callers = 8;
+        long executedLookups = orderLookupCoalescer.getExecutedLookupCount();
+        long coalescedLookups = orderLookupCoalescer.getCoalescedLookupCount();
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        when(orderRepository.findByTrackingId(trackingId)).thenAnswer(invocation -> {
+            releaseLookup.await(5, TimeUnit.SECONDS);
+            return Optional.of(order);
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<TrackOrderResponse>> trackOrderResponses = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                trackOrderResponses.add(executorService.submit(() -> orderApplicationService.trackOrder(trackOrderQuery)));
+            }
+            // The first caller holds the repository read until all others joined it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (orderLookupCoalescer.getCoalescedLookupCount() < coalescedLookups + callers - 1
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            releaseLookup.countDown();
+            for (Future<TrackOrderResponse> trackOrderResponse : trackOrderResponses) {
+                assertEquals(OrderStatus.PENDING, trackOrderResponse.get(5, TimeUnit.SECONDS).getOrderStatus());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        verify(orderRepository, times(1)).findByTrackingId(trackingId);
+        assertEquals(executedLookups + 1, orderLookupCoalescer.getExecutedLookupCount());
+        assertEquals(coalescedLookups + callers - 1, orderLookupCoalescer.getCoalescedLookupCount());
+    }
+
+    @Test
+    public void testTrackOrderWithInvalidQuery() {
+        // Queries are checked by the request checker, the service isn't wrapped in a method validation proxy
+        assertFalse(AopUtils.isAopProxy(orderApplicationService));
+        TrackOrderQuery invalidQuery = TrackOrderQuery.builder().build();
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> orderApplicationService.trackOrder(invalidQuery));
+        assertEquals("Track order query is not valid: orderTrackingId: must not be null", validationException.getMessage());
+        assertThrows(ValidationException.class, () -> orderApplicationService.trackOrderAsync(invalidQuery));
+    }
+
+    @Test
+    public void testCreateOrderWithUnknownCustomer() {
+        CreateOrderCommand createOrderCommandUnknownCustomer = CreateOrderCommand.builder()
+                .customerId(UNKNOWN_CUSTOMER_ID)
+                .restaurantId(RESTAURANT_ID)
+                .address(createOrderCommand.getAddress())
+                .price(PRICE)
+                .items(createOrderCommand.getItems())
+                .build();
+        OrderDomainException orderDomainException = assertThrows(OrderDomainException.class,
+                () -> orderApplicationService.createOrder(createOrderCommandUnknownCustomer));
+        assertEquals("Could not find customer with id: " + UNKNOWN_CUSTOMER_ID, orderDomainException.getMessage());
+        // A filter miss still asks the repository by default
+        verify(customerRepository, atLeastOnce()).findCustomer(UNKNOWN_CUSTOMER_ID);
+
+        orderServiceConfigData.setCustomerFilterRejectMisses(true);
+        try {
+            UUID otherUnknownCustomerId = UUID.randomUUID();
+            orderDomainException = assertThrows(OrderDomainException.class,
+                    () -> orderApplicationService.createOrder(commandOfCustomer(otherUnknownCustomerId)));
+            assertEquals("Could not find customer with id: " + otherUnknownCustomerId, orderDomainException.getMessage());
+            verify(customerRepository, never()).findCustomer(otherUnknownCustomerId);
+        } finally {
+            orderServiceConfigData.setCustomerFilterRejectMisses(false);
+        }
+    }
+
+    @Test
+    public void testCreateOrderWithCustomerCreatedAfterSeed() {
+        UUID unreportedCustomerId = UUID.randomUUID();
+        UUID reportedCustomerId = UUID.randomUUID();
+        for (UUID customerId : List.of(unreportedCustomerId, reportedCustomerId)) {
+            Customer customer = new Customer();
+            customer.setId(new CustomerId(customerId));
+            when(customerRepository.findCustomer(customerId)).thenReturn(Optional.of(customer));
+        }
+
+        // The creation was never reported, the repository finds the customer and the filter learns it
+        long lateRegistrations = customerIdFilter.getLateRegistrationCount();
+        assertEquals(OrderStatus.PENDING,
+                orderApplicationService.createOrder(commandOfCustomer(unreportedCustomerId)).getOrderStatus());
+        assertEquals(lateRegistrations + 1, customerIdFilter.getLateRegistrationCount());
+
+        orderServiceConfigData.setCustomerFilterRejectMisses(true);
+        try {
+            customerMessageListener.customerCreated(reportedCustomerId);
+            assertEquals(OrderStatus.PENDING,
+                    orderApplicationService.createOrder(commandOfCustomer(reportedCustomerId)).getOrderStatus());
+            assertEquals(OrderStatus.PENDING,
+                    orderApplicationService.createOrder(commandOfCustomer(unreportedCustomerId)).getOrderStatus());
+        } finally {
+            orderServiceConfigData.setCustomerFilterRejectMisses(false);
+        }
     }
 
     @Test
@@ -180,6 +485,376 @@ public class OrderApplicationServiceTest {
         assertEquals("Order item price: 60.00 is not valid for product " + PRODUCT_ID, orderDomainException.getMessage());
     }
 
+    @Test
+    public void testCreateOrderWithUnknownProduct() {
+        OrderDomainException orderDomainException = assertThrows(OrderDomainException.class,
+                () -> orderApplicationService.createOrder(createOrderCommandUnknownProduct));
+        assertEquals("Product with id " + UNKNOWN_PRODUCT_ID + " is not available in restaurant " + RESTAURANT_ID,
+                orderDomainException.getMessage());
+    }
+
+    @Test
+    public void testCreateOrderWithOverflowingQuantity() {
+        CreateOrderCommand overflowingCommand = CreateOrderCommand.builder()
+                .customerId(CUSTOMER_ID)
+                .restaurantId(EXPENSIVE_RESTAURANT_ID)
+                .address(createOrderCommand.getAddress())
+                .price(new BigDecimal("1.00"))
+                .items(List.of(OrderItem.builder()
+                        .productId(PRODUCT_ID)
+                        .quantity(2)
+                        .price(new BigDecimal("90000000000000000.00"))
+                        .subTotal(new BigDecimal("1.00"))
+                        .build()))
+                .build();
+        stubExpensiveRestaurant(overflowingCommand);
+        CreateOrderCommand outOfRangeCommand = CreateOrderCommand.builder()
+                .customerId(CUSTOMER_ID)
+                .restaurantId(RESTAURANT_ID)
+                .address(createOrderCommand.getAddress())
+                .price(new BigDecimal("1E+30"))
+                .items(createOrderCommand.getItems())
+                .build();
+
+        OrderDomainException overflowException = assertThrows(OrderDomainException.class,
+                () -> orderApplicationService.createOrder(overflowingCommand));
+        assertEquals("Order item price: 90000000000000000.00 is not valid for product " + PRODUCT_ID,
+                overflowException.getMessage());
+        OrderDomainException outOfRangeException = assertThrows(OrderDomainException.class,
+                () -> orderApplicationService.createOrder(outOfRangeCommand));
+        assertEquals("Amount is out of range: 1000000000000000000000000000000", outOfRangeException.getMessage());
+
+        // In a batch only the overflowing commands are rejected
+        List<CreateOrderResult> createOrderResults = orderApplicationService.createOrders(
+                List.of(overflowingCommand, outOfRangeCommand, createOrderCommand));
+        assertFalse(createOrderResults.get(0).isCreated());
+        assertFalse(createOrderResults.get(1).isCreated());
+        assertEquals("Amount is out of range: 1000000000000000000000000000000",
+                createOrderResults.get(1).getFailureMessage());
+        assertTrue(createOrderResults.get(2).isCreated());
+    }
+
+    @Test
+    public void testCreateOrderWithOverflowingItemsTotal() {
+        OrderItem expensiveItem = OrderItem.builder()
+                .productId(PRODUCT_ID)
+                .quantity(1)
+                .price(new BigDecimal("90000000000000000.00"))
+                .subTotal(new BigDecimal("90000000000000000.00"))
+                .build();
+        CreateOrderCommand overflowingCommand = CreateOrderCommand.builder()
+                .customerId(CUSTOMER_ID)
+                .restaurantId(EXPENSIVE_RESTAURANT_ID)
+                .address(createOrderCommand.getAddress())
+                .price(new BigDecimal("1.00"))
+                .items(List.of(expensiveItem, expensiveItem))
+                .build();
+        stubExpensiveRestaurant(overflowingCommand);
+
+        OrderDomainException orderDomainException = assertThrows(OrderDomainException.class,
+                () -> orderApplicationService.createOrder(overflowingCommand));
+        assertEquals("Order items total is out of range!", orderDomainException.getMessage());
+        List<CreateOrderResult> createOrderResults = orderApplicationService.createOrders(
+                List.of(overflowingCommand, createOrderCommand));
+        assertFalse(createOrderResults.get(0).isCreated());
+        assertEquals("Order items total is out of range!", createOrderResults.get(0).getFailureMessage());
+        assertTrue(createOrderResults.get(1).isCreated());
+    }
+
+    @Test
+    public void testValidateAndInitiateOrders() {
+        Restaurant restaurant = Restaurant.builder()
+                .restaurantId(new RestaurantId(RESTAURANT_ID))
+                .products(List.of(new Product(new ProductId(PRODUCT_ID), "product-1", new Money(new BigDecimal("50.00")))))
+                .active(true)
+                .build();
+        // Enough orders to split the batch over several fork join tasks
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            orders.add(orderDataMapper.createOrderCommandToOrder(i % 10 == 3 ? createOrderCommandWrongPrice
+                    : i % 10 == 7 ? createOrderCommandUnknownProduct : createOrderCommand));
+        }
+        orders.add(orderDataMapper.createOrderCommandToOrder(CreateOrderCommand.builder()
+                .customerId(CUSTOMER_ID)
+                .restaurantId(UUID.randomUUID())
+                .address(createOrderCommand.getAddress())
+                .price(PRICE)
+                .items(createOrderCommand.getItems())
+                .build()));
+
+        List<OrderInitiationResult> results;
+        try (OrderDomainServiceImpl orderDomainService = new OrderDomainServiceImpl(idGenerator, 2)) {
+            results = orderDomainService.validateAndInitiateOrders(orders,
+                    Map.of(new RestaurantId(RESTAURANT_ID), restaurant));
+        }
+
+        assertEquals(orders.size(), results.size());
+        for (int i = 0; i < 100; i++) {
+            OrderInitiationResult result = results.get(i);
+            assertSame(orders.get(i), result.getOrder());
+            if (i % 10 == 3) {
+                assertFalse(result.isInitiated());
+                assertEquals("Total price (250.00) is not equal to order items total (200.00)!", result.getRejectionReason());
+            } else if (i % 10 == 7) {
+                assertFalse(result.isInitiated());
+                assertEquals("Product with id " + UNKNOWN_PRODUCT_ID + " is not available in restaurant " + RESTAURANT_ID,
+                        result.getRejectionReason());
+            } else {
+                assertTrue(result.isInitiated());
+                assertEquals(OrderStatus.PENDING, result.getOrder().getOrderStatus());
+                assertNotNull(result.getOrderCreatedEvent());
+            }
+        }
+        assertFalse(results.get(100).isInitiated());
+        assertTrue(results.get(100).getRejectionReason().startsWith("Could not find restaurant with id: "));
+    }
+
+    @Test
+    public void testApplyTransitions() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Order order = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+            order.initializeOrder(idGenerator);
+            orders.add(order);
+        }
+        orders.get(2).pay();
+
+        List<OrderTransitionResult> results;
+        try (OrderDomainServiceImpl orderDomainService = new OrderDomainServiceImpl(idGenerator, 1)) {
+            results = orderDomainService.applyTransitions(orders, OrderTransition.PAY, null);
+        }
+
+        assertEquals(3, results.size());
+        for (int i = 0; i < 2; i++) {
+            assertTrue(results.get(i).isApplied());
+            assertEquals(OrderStatus.PENDING, results.get(i).getPreviousStatus());
+            assertEquals(OrderStatus.PAID, orders.get(i).getOrderStatus());
+            assertInstanceOf(OrderPaidEvent.class, results.get(i).getOrderEvent());
+        }
+        // An order not in the source state of the transition is reported, not thrown
+        assertFalse(results.get(2).isApplied());
+        assertEquals(OrderStatus.PAID, results.get(2).getPreviousStatus());
+        assertNull(results.get(2).getOrderEvent());
+    }
+
+    @Test
+    public void testCachingRestaurantRepository() {
+        UUID secondProductId = UUID.randomUUID();
+        Map<ProductId, Product> menu = new HashMap<>(Map.of(
+                new ProductId(PRODUCT_ID), new Product(new ProductId(PRODUCT_ID), "product-1", new Money(new BigDecimal("50.00"))),
+                new ProductId(secondProductId), new Product(new ProductId(secondProductId), "product-2", new Money(new BigDecimal("20.00")))));
+        RestaurantRepository databaseRestaurantRepository = mock(RestaurantRepository.class);
+        AtomicReference<Runnable> duringLoad = new AtomicReference<>(() -> {});
+        // Like the adapter, only the requested products that are on the menu are returned
+        when(databaseRestaurantRepository.findRestaurantInformation(any(Restaurant.class))).thenAnswer(invocation -> {
+            duringLoad.getAndSet(() -> {}).run();
+            Restaurant restaurant = invocation.getArgument(0);
+            return Optional.of(Restaurant.builder()
+                    .restaurantId(restaurant.getId())
+                    .products(restaurant.getProducts().stream()
+                            .map(product -> menu.get(product.getId()))
+                            .filter(Objects::nonNull)
+                            .toList())
+                    .active(true)
+                    .build());
+        });
+        CachingRestaurantRepository cachingRestaurantRepository =
+                new CachingRestaurantRepository(databaseRestaurantRepository, orderServiceConfigData);
+        Restaurant firstProductRequest = Restaurant.builder()
+                .restaurantId(new RestaurantId(RESTAURANT_ID))
+                .products(List.of(new Product(new ProductId(PRODUCT_ID))))
+                .build();
+        Restaurant secondProductRequest = Restaurant.builder()
+                .restaurantId(new RestaurantId(RESTAURANT_ID))
+                .products(List.of(new Product(new ProductId(secondProductId))))
+                .build();
+
+        // Miss, then hit
+        Restaurant loadedRestaurant = cachingRestaurantRepository.findRestaurantInformation(firstProductRequest).orElseThrow();
+        assertSame(loadedRestaurant, cachingRestaurantRepository.findRestaurantInformation(firstProductRequest).orElseThrow());
+        verify(databaseRestaurantRepository, times(1)).findRestaurantInformation(any(Restaurant.class));
+        assertEquals(1, cachingRestaurantRepository.getStats().hitCount());
+
+        // A product outside the cached subset extends the menu instead of replacing it
+        Restaurant extendedRestaurant = cachingRestaurantRepository.findRestaurantInformation(secondProductRequest).orElseThrow();
+        assertNotNull(extendedRestaurant.findProduct(new ProductId(PRODUCT_ID)));
+        assertNotNull(extendedRestaurant.findProduct(new ProductId(secondProductId)));
+        assertTrue(extendedRestaurant.getMenu().getVersion() > loadedRestaurant.getMenu().getVersion());
+        assertSame(extendedRestaurant, cachingRestaurantRepository.findRestaurantInformation(firstProductRequest).orElseThrow());
+        assertSame(extendedRestaurant, cachingRestaurantRepository.findRestaurantInformation(secondProductRequest).orElseThrow());
+        verify(databaseRestaurantRepository, times(2)).findRestaurantInformation(any(Restaurant.class));
+
+        // A menu change drops the cached menu, the next order sees the new price
+        menu.put(new ProductId(PRODUCT_ID), new Product(new ProductId(PRODUCT_ID), "product-1", new Money(new BigDecimal("55.00"))));
+        new RestaurantMessageListenerImpl(Optional.of(cachingRestaurantRepository)).restaurantMenuChanged(RESTAURANT_ID);
+        assertEquals(new Money(new BigDecimal("55.00")), cachingRestaurantRepository.findRestaurantInformation(firstProductRequest)
+                .orElseThrow().findProduct(new ProductId(PRODUCT_ID)).getPrice());
+        verify(databaseRestaurantRepository, times(3)).findRestaurantInformation(any(Restaurant.class));
+
+        // A menu change while a merged menu is loading wins, the merge is returned but not cached
+        UUID thirdProductId = UUID.randomUUID();
+        menu.put(new ProductId(thirdProductId), new Product(new ProductId(thirdProductId), "product-3", new Money(new BigDecimal("10.00"))));
+        Restaurant thirdProductRequest = Restaurant.builder()
+                .restaurantId(new RestaurantId(RESTAURANT_ID))
+                .products(List.of(new Product(new ProductId(thirdProductId))))
+                .build();
+        duringLoad.set(() -> cachingRestaurantRepository.invalidate(new RestaurantId(RESTAURANT_ID)));
+        assertNotNull(cachingRestaurantRepository.findRestaurantInformation(thirdProductRequest).orElseThrow()
+                .findProduct(new ProductId(thirdProductId)));
+        verify(databaseRestaurantRepository, times(4)).findRestaurantInformation(any(Restaurant.class));
+        cachingRestaurantRepository.findRestaurantInformation(firstProductRequest).orElseThrow();
+        verify(databaseRestaurantRepository, times(5)).findRestaurantInformation(any(Restaurant.class));
+    }
+
+    @Test
+    public void testCreateOrderWithOverloadedRestaurant() {
+        RestaurantId restaurantId = new RestaurantId(RESTAURANT_ID);
+        List<RestaurantAdmissionController.Permit> permits = new ArrayList<>();
+        try {
+            permits.add(restaurantAdmissionController.acquire(restaurantId));
+            while (permits.size() < restaurantAdmissionController.getLimit(restaurantId)) {
+                permits.add(restaurantAdmissionController.acquire(restaurantId));
+            }
+            OrderOverloadException orderOverloadException = assertThrows(OrderOverloadException.class,
+                    () -> orderApplicationService.createOrder(createOrderCommand));
+            assertEquals("Too many orders for restaurant " + RESTAURANT_ID + " right now, please retry later!",
+                    orderOverloadException.getMessage());
+        } finally {
+            permits.forEach(RestaurantAdmissionController.Permit::release);
+        }
+    }
+
+    @Test
+    public void testCreateOrderWithInvalidCommand() {
+        CreateOrderCommand invalidCommand = CreateOrderCommand.builder()
+                .customerId(CUSTOMER_ID)
+                .restaurantId(RESTAURANT_ID)
+                .address(OrderAddress.builder()
+                        .street("street_1")
+                        .postalCode("1000AB-1000AB")
+                        .city("Paris")
+                        .build())
+                .price(PRICE)
+                .items(List.of(OrderItem.builder()
+                        .productId(PRODUCT_ID)
+                        .quantity(0)
+                        .price(new BigDecimal("50.00"))
+                        .subTotal(new BigDecimal("0.00"))
+                        .build()))
+                .build();
+
+        ValidationException validationException = assertThrows(ValidationException.class,
+                () -> orderApplicationService.createOrder(invalidCommand));
+        assertEquals("Create order command is not valid: items[0].quantity: must be greater than 0, "
+                + "address.postalCode: size must be between 0 and 10", validationException.getMessage());
+
+        // The reflective path finds the same violations
+        orderServiceConfigData.setCreateOrderGeneratedValidation(false);
+        try {
+            ConstraintViolationException constraintViolationException = assertThrows(ConstraintViolationException.class,
+                    () -> orderApplicationService.createOrder(invalidCommand));
+            assertEquals(2, constraintViolationException.getConstraintViolations().size());
+        } finally {
+            orderServiceConfigData.setCreateOrderGeneratedValidation(true);
+        }
+    }
+
+    @Test
+    public void testCreateOrderLookupDeadline() throws Exception {
+        // The customer lookup blocks until it is interrupted
+        UUID slowCustomerId = UUID.randomUUID();
+        CountDownLatch lookupInterrupted = new CountDownLatch(1);
+        when(customerRepository.findCustomer(slowCustomerId)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                lookupInterrupted.countDown();
+            }
+            return Optional.empty();
+        });
+        Long lookupTimeoutMs = orderServiceConfigData.getLookupTimeoutMs();
+        orderServiceConfigData.setLookupTimeoutMs(200L);
+        try {
+            long start = System.nanoTime();
+            OrderDomainException orderDomainException = assertThrows(OrderDomainException.class,
+                    () -> orderApplicationService.createOrder(commandOfCustomer(slowCustomerId)));
+            assertEquals("Customer and restaurant lookups timed out!", orderDomainException.getMessage());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            // The timed out lookup is cancelled as a task, so the blocked repository call is interrupted
+            assertTrue(lookupInterrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            orderServiceConfigData.setLookupTimeoutMs(lookupTimeoutMs);
+        }
+    }
+
+    @Test
+    public void testCreateOrderLookupFailsFast() throws Exception {
+        // The restaurant lookup fails while the customer lookup is still blocked, the order fails right away
+        UUID slowCustomerId = UUID.randomUUID();
+        UUID failingRestaurantId = UUID.randomUUID();
+        CountDownLatch lookupInterrupted = new CountDownLatch(1);
+        when(customerRepository.findCustomer(slowCustomerId)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                lookupInterrupted.countDown();
+            }
+            return Optional.empty();
+        });
+        CreateOrderCommand command = CreateOrderCommand.builder()
+                .customerId(slowCustomerId)
+                .restaurantId(failingRestaurantId)
+                .address(createOrderCommand.getAddress())
+                .price(PRICE)
+                .items(createOrderCommand.getItems())
+                .build();
+        when(restaurantRepository.findRestaurantInformation(orderDataMapper.createOrderCommandToRestaurant(command)))
+                .thenThrow(new IllegalStateException("Restaurant database is down"));
+
+        long start = System.nanoTime();
+        IllegalStateException illegalStateException = assertThrows(IllegalStateException.class,
+                () -> orderApplicationService.createOrder(command));
+        assertEquals("Restaurant database is down", illegalStateException.getMessage());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(orderServiceConfigData.getLookupTimeoutMs()));
+        assertTrue(lookupInterrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCreateOrderWithRateLimitedCustomer() {
+        CreateOrderCommand createOrderCommandRateLimited = CreateOrderCommand.builder()
+                .customerId(RATE_LIMITED_CUSTOMER_ID)
+                .restaurantId(RESTAURANT_ID)
+                .address(createOrderCommand.getAddress())
+                .price(PRICE)
+                .items(createOrderCommand.getItems())
+                .build();
+        long rejectedRequests = customerRateLimiter.getRejectedRequestCount();
+        // The customer is unknown, so attempts within the limit fail on the customer check
+        OrderDomainException orderDomainException = null;
+        for (int attempt = 0; attempt < 1_000 && !(orderDomainException instanceof OrderRateLimitException); attempt++) {
+            orderDomainException = assertThrows(OrderDomainException.class,
+                    () -> orderApplicationService.createOrder(createOrderCommandRateLimited));
+        }
+        assertInstanceOf(OrderRateLimitException.class, orderDomainException);
+        assertEquals("Too many orders from customer " + RATE_LIMITED_CUSTOMER_ID + ", please retry later!",
+                orderDomainException.getMessage());
+        assertEquals(rejectedRequests + 1, customerRateLimiter.getRejectedRequestCount());
+
+        // In a batch every command is charged, the ones over the limit are rejected one by one
+        UUID batchCustomerId = UUID.randomUUID();
+        List<CreateOrderCommand> batch = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            batch.add(commandOfCustomer(batchCustomerId));
+        }
+        List<CreateOrderResult> createOrderResults = orderApplicationService.createOrders(batch);
+        assertEquals(40, createOrderResults.size());
+        String rateLimitMessage = "Too many orders from customer " + batchCustomerId + ", please retry later!";
+        assertEquals("Could not find customer with id: " + batchCustomerId, createOrderResults.get(0).getFailureMessage());
+        assertEquals(rateLimitMessage, createOrderResults.get(39).getFailureMessage());
+        assertTrue(createOrderResults.stream().filter(result -> rateLimitMessage.equals(result.getFailureMessage())).count()
+                >= 40 - orderServiceConfigData.getCustomerRateLimitBurst() - orderServiceConfigData.getCustomerRateLimitPermitsPerSecond());
+    }
+
     @Test
     public void testCreateOrderWithPassiveRestaurant() {
         Restaurant restaurantResponse = Restaurant.builder()
@@ -190,9 +865,354 @@ public class OrderApplicationServiceTest {
                 .build();
         when(restaurantRepository.findRestaurantInformation(orderDataMapper.createOrderCommandToRestaurant(createOrderCommand)))
                 .thenReturn(Optional.of(restaurantResponse));
-        OrderDomainException orderDomainException = assertThrows(OrderDomainException.class,
-                () -> orderApplicationService.createOrder(createOrderCommand));
-        assertEquals("Restaurant with id " + RESTAURANT_ID + " is currently not active", orderDomainException.getMessage());
+        try {
+            OrderDomainException orderDomainException = assertThrows(OrderDomainException.class,
+                    () -> orderApplicationService.createOrder(createOrderCommand));
+            assertEquals("Restaurant with id " + RESTAURANT_ID + " is currently not active", orderDomainException.getMessage());
+        } finally {
+            // Later tests order from the active restaurant again
+            when(restaurantRepository.findRestaurantInformation(orderDataMapper.createOrderCommandToRestaurant(createOrderCommand)))
+                    .thenReturn(Optional.of(Restaurant.builder()
+                            .restaurantId(new RestaurantId(RESTAURANT_ID))
+                            .products(restaurantResponse.getProducts())
+                            .active(true)
+                            .build()));
+        }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testPaymentCompletedResponse() throws Exception {
+        Order pendingOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        pendingOrder.initializeOrder(idGenerator);
+        when(orderRepository.findByIds(anyCollection())).thenReturn(List.of(pendingOrder));
+        PaymentResponse paymentResponse = PaymentResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .sagaId(SAGA_ID.toString())
+                .orderId(pendingOrder.getId().getValue().toString())
+                .paymentId(UUID.randomUUID().toString())
+                .customerId(CUSTOMER_ID.toString())
+                .price(PRICE)
+                .createdAt(Instant.now())
+                .paymentStatus(PaymentStatus.COMPLETED)
+                .failureMessages(List.of())
+                .build();
+
+        // The listener hands back the future the adapter acknowledges the message on
+        paymentResponseMessageListener.paymentCompleted(paymentResponse).get(5, TimeUnit.SECONDS);
+        assertEquals(OrderStatus.PAID, pendingOrder.getOrderStatus());
+        verify(approvalOutboxRepository).saveAll(anyList());
+        TrackOrderResponse trackOrderResponse = orderApplicationService.trackOrder(TrackOrderQuery.builder()
+                .orderTrackingId(pendingOrder.getTrackingId().getValue())
+                .build());
+        assertEquals(OrderStatus.PAID, trackOrderResponse.getOrderStatus());
+
+        // A redelivered response is skipped
+        paymentResponseDispatcher.dispatch(paymentResponse).get(5, TimeUnit.SECONDS);
+        assertEquals(OrderStatus.PAID, pendingOrder.getOrderStatus());
+        verify(approvalOutboxRepository).saveAll(anyList());
+
+        // An Error while applying fails the response, and the worker keeps applying later ones of the same order
+        Order failingOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        failingOrder.initializeOrder(idGenerator);
+        PaymentResponse failingResponse = PaymentResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .sagaId(SAGA_ID.toString())
+                .orderId(failingOrder.getId().getValue().toString())
+                .paymentId(UUID.randomUUID().toString())
+                .customerId(CUSTOMER_ID.toString())
+                .price(PRICE)
+                .createdAt(Instant.now())
+                .paymentStatus(PaymentStatus.COMPLETED)
+                .failureMessages(List.of())
+                .build();
+        when(orderRepository.findByIds(anyCollection())).thenThrow(new StackOverflowError("Simulated error"));
+        CompletableFuture<Void> failing = paymentResponseMessageListener.paymentCompleted(failingResponse);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, exception.getCause());
+        doAnswer(invocation -> List.of(failingOrder)).when(orderRepository).findByIds(anyCollection());
+        paymentResponseMessageListener.paymentCompleted(failingResponse).get(5, TimeUnit.SECONDS);
+        assertEquals(OrderStatus.PAID, failingOrder.getOrderStatus());
+    }
+
+    @Test
+    public void testRestaurantApprovalResponses() throws Exception {
+        Order approvedOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        approvedOrder.initializeOrder(idGenerator);
+        approvedOrder.pay();
+        Order rejectedOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        rejectedOrder.initializeOrder(idGenerator);
+        rejectedOrder.pay();
+        when(orderRepository.findByIds(anyCollection())).thenReturn(List.of(approvedOrder, rejectedOrder));
+
+        CompletableFuture<Void> approved = restaurantApprovalResponsePipeline.submit(
+                getRestaurantApprovalResponse(approvedOrder, OrderApprovalStatus.APPROVED));
+        CompletableFuture<Void> rejected = restaurantApprovalResponsePipeline.submit(
+                getRestaurantApprovalResponse(rejectedOrder, OrderApprovalStatus.REJECTED));
+        CompletableFuture.allOf(approved, rejected).get(5, TimeUnit.SECONDS);
+
+        assertEquals(OrderStatus.APPROVED, approvedOrder.getOrderStatus());
+        assertEquals(OrderStatus.CANCELLING, rejectedOrder.getOrderStatus());
+        verify(paymentOutboxRepository, atLeastOnce()).saveAll(argThat(messages -> messages.stream()
+                .anyMatch(message -> message.getOrderStatus() == OrderStatus.CANCELLING)));
+        TrackOrderResponse trackOrderResponse = orderApplicationService.trackOrder(TrackOrderQuery.builder()
+                .orderTrackingId(approvedOrder.getTrackingId().getValue())
+                .build());
+        assertEquals(OrderStatus.APPROVED, trackOrderResponse.getOrderStatus());
+        assertTrue(restaurantApprovalResponsePipeline.getStageMetrics().get("apply").getCount() > 0);
+
+        // A malformed response fails on its own
+        RestaurantAprovalResponse malformedResponse = RestaurantAprovalResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .sagaId(SAGA_ID.toString())
+                .orderId("not-an-order-id")
+                .restaurantId(RESTAURANT_ID.toString())
+                .createdAt(Instant.now())
+                .orderApprovalStatus(OrderApprovalStatus.APPROVED)
+                .failureMessages(List.of())
+                .build();
+        CompletableFuture<Void> malformed = restaurantApprovalResponsePipeline.submit(malformedResponse);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> malformed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OrderDomainException.class, exception.getCause());
+
+        // An Error while applying fails the response, and the pipeline keeps applying later ones
+        Order failingOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        failingOrder.initializeOrder(idGenerator);
+        failingOrder.pay();
+        when(orderRepository.findByIds(anyCollection())).thenThrow(new StackOverflowError("Simulated error"));
+        CompletableFuture<Void> failing = restaurantApprovalResponseMessageListener.orderApproved(
+                getRestaurantApprovalResponse(failingOrder, OrderApprovalStatus.APPROVED));
+        exception = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, exception.getCause());
+        doAnswer(invocation -> List.of(failingOrder)).when(orderRepository).findByIds(anyCollection());
+        restaurantApprovalResponseMessageListener.orderApproved(
+                getRestaurantApprovalResponse(failingOrder, OrderApprovalStatus.APPROVED)).get(5, TimeUnit.SECONDS);
+        assertEquals(OrderStatus.APPROVED, failingOrder.getOrderStatus());
+    }
+
+    @Test
+    public void testSagaTimeout() throws Exception {
+        Order pendingOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        pendingOrder.initializeOrder(idGenerator);
+        Order paidOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        paidOrder.initializeOrder(idGenerator);
+        paidOrder.pay();
+        Order approvedOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        approvedOrder.initializeOrder(idGenerator);
+        approvedOrder.pay();
+        when(orderRepository.findByIds(anyCollection())).thenReturn(List.of(pendingOrder, paidOrder, approvedOrder));
+
+        long expiredBefore = sagaTimeoutScheduler.getExpiredTimeoutCount();
+        Long paymentTimeoutMs = orderServiceConfigData.getSagaPaymentTimeoutMs();
+        Long approvalTimeoutMs = orderServiceConfigData.getSagaApprovalTimeoutMs();
+        orderServiceConfigData.setSagaPaymentTimeoutMs(200L);
+        orderServiceConfigData.setSagaApprovalTimeoutMs(200L);
+        try {
+            sagaTimeoutScheduler.track(pendingOrder);
+            sagaTimeoutScheduler.track(paidOrder);
+            sagaTimeoutScheduler.track(approvedOrder);
+            // The approval arrives in time and cancels its deadline
+            approvedOrder.approve();
+            sagaTimeoutScheduler.track(approvedOrder);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sagaTimeoutScheduler.getExpiredTimeoutCount() < expiredBefore + 2 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+        } finally {
+            orderServiceConfigData.setSagaPaymentTimeoutMs(paymentTimeoutMs);
+            orderServiceConfigData.setSagaApprovalTimeoutMs(approvalTimeoutMs);
+        }
+
+        assertEquals(expiredBefore + 2, sagaTimeoutScheduler.getExpiredTimeoutCount());
+        assertEquals(OrderStatus.CANCELLED, pendingOrder.getOrderStatus());
+        assertEquals(OrderStatus.CANCELLING, paidOrder.getOrderStatus());
+        assertEquals(OrderStatus.APPROVED, approvedOrder.getOrderStatus());
+        // Timeout reasons are known texts without a parameter
+        assertNotEquals(FailureReasonRegistry.UNREGISTERED, pendingOrder.getFailureCodes()[0]);
+        assertNull(pendingOrder.getFailureParameters());
+        assertEquals(List.of("Payment response timed out"),
+                FailureReasonRegistry.render(pendingOrder.getFailureCodes(), pendingOrder.getFailureParameters()));
+        // Known payment reasons only keep their per order part, unknown text is kept whole
+        Order declinedOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+        declinedOrder.initializeOrder(idGenerator);
+        List<String> failureMessages = List.of(
+                "Customer with id=" + CUSTOMER_ID + " doesn't have enough credit for payment!",
+                "Total price must be greater than zero!",
+                "Payment declined for order " + declinedOrder.getId().getValue());
+        declinedOrder.cancel(failureMessages);
+        assertNotEquals(FailureReasonRegistry.UNREGISTERED, declinedOrder.getFailureCodes()[0]);
+        assertNotEquals(FailureReasonRegistry.UNREGISTERED, declinedOrder.getFailureCodes()[1]);
+        assertEquals(FailureReasonRegistry.UNREGISTERED, declinedOrder.getFailureCodes()[2]);
+        assertArrayEquals(new String[]{CUSTOMER_ID.toString(), null, failureMessages.get(2)},
+                declinedOrder.getFailureParameters());
+        assertEquals(failureMessages,
+                FailureReasonRegistry.render(declinedOrder.getFailureCodes(), declinedOrder.getFailureParameters()));
+    }
+
+    @Test
+    public void testSagaTimeoutRacingApproval() {
+        // The repository hands out copies and writes them only if the stored status is unchanged, like the adapter.
+        // A competing writer queued here commits between the next read and the write of its caller.
+        Map<OrderId, Order> storedOrders = new ConcurrentHashMap<>();
+        Queue<Runnable> competingWriters = new ConcurrentLinkedQueue<>();
+        doAnswer(invocation -> {
+            List<Order> orders = new ArrayList<>();
+            for (OrderId orderId : invocation.<Collection<OrderId>>getArgument(0)) {
+                orders.add(copyOf(storedOrders.get(orderId)));
+            }
+            Runnable competingWriter = competingWriters.poll();
+            if (competingWriter != null) {
+                competingWriter.run();
+            }
+            return orders;
+        }).when(orderRepository).findByIds(anyCollection());
+        doAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            List<OrderStatus> expectedStatuses = invocation.getArgument(1);
+            List<Order> savedOrders = new ArrayList<>();
+            synchronized (storedOrders) {
+                for (int i = 0; i < orders.size(); i++) {
+                    Order order = orders.get(i);
+                    if (storedOrders.get(order.getId()).getOrderStatus() == expectedStatuses.get(i)) {
+                        storedOrders.put(order.getId(), copyOf(order));
+                        savedOrders.add(order);
+                    }
+                }
+            }
+            return savedOrders;
+        }).when(orderRepository).saveAllIfStatus(anyList(), anyList());
+
+        try {
+            // The approval commits while the expiry works on its copy, the expiry leaves the order alone
+            Order approvedOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+            approvedOrder.initializeOrder(idGenerator);
+            approvedOrder.pay();
+            storedOrders.put(approvedOrder.getId(), copyOf(approvedOrder));
+            competingWriters.add(() -> restaurantApprovalResponseHelper.applyApprovalResponses(List.of(
+                    new DecodedApprovalResponse(approvedOrder.getId(), SAGA_ID, true, List.of()))));
+            List<Order> expiredOrders = sagaTimeoutHelper.expireSagaSteps(
+                    List.of(new SagaStep(approvedOrder.getId(), OrderStatus.PAID)));
+            assertTrue(expiredOrders.isEmpty());
+            assertEquals(OrderStatus.APPROVED, storedOrders.get(approvedOrder.getId()).getOrderStatus());
+            verify(paymentOutboxRepository, never()).saveAll(argThat(messages -> messages.stream().anyMatch(message ->
+                    message.getPayload().getOrderId().equals(approvedOrder.getId().getValue()))));
+
+            // The expiry commits while the approval works on its copy, the approval fails and on retry finds the
+            // order cancelling
+            Order expiredOrder = orderDataMapper.createOrderCommandToOrder(createOrderCommand);
+            expiredOrder.initializeOrder(idGenerator);
+            expiredOrder.pay();
+            storedOrders.put(expiredOrder.getId(), copyOf(expiredOrder));
+            competingWriters.add(() -> sagaTimeoutHelper.expireSagaSteps(
+                    List.of(new SagaStep(expiredOrder.getId(), OrderStatus.PAID))));
+            List<DecodedApprovalResponse> approvalResponses = List.of(
+                    new DecodedApprovalResponse(expiredOrder.getId(), SAGA_ID, true, List.of()));
+            OrderDomainException orderDomainException = assertThrows(OrderDomainException.class,
+                    () -> restaurantApprovalResponseHelper.applyApprovalResponses(approvalResponses));
+            assertEquals("Orders were changed concurrently!", orderDomainException.getMessage());
+            assertEquals(OrderStatus.CANCELLING, storedOrders.get(expiredOrder.getId()).getOrderStatus());
+            assertTrue(restaurantApprovalResponseHelper.applyApprovalResponses(approvalResponses).isEmpty());
+            assertEquals(OrderStatus.CANCELLING, storedOrders.get(expiredOrder.getId()).getOrderStatus());
+        } finally {
+            when(orderRepository.saveAllIfStatus(anyList(), anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        }
+    }
+
+    private Order copyOf(Order order) {
+        return Order.builder()
+                .orderId(order.getId())
+                .customerId(order.getCustomerId())
+                .restaurantId(order.getRestaurantId())
+                .deliveryAddress(order.getDeliveryAddress())
+                .price(order.getPrice())
+                .items(order.getItems())
+                .trackingId(order.getTrackingId())
+                .status(order.getOrderStatus())
+                .failureMessages(FailureReasonRegistry.render(order.getFailureCodes(), order.getFailureParameters()))
+                .build();
+    }
+
+    @Test
+    public void testPaymentOutboxRelay() {
+        OrderPaymentOutboxMessage sentMessage = getOrderPaymentOutboxMessage();
+        OrderPaymentOutboxMessage failedMessage = OrderPaymentOutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .sagaId(UUID.randomUUID())
+                .createdAt(sentMessage.getCreatedAt())
+                .type(ORDER_SAGA_NAME)
+                .payload(sentMessage.getPayload())
+                .orderStatus(OrderStatus.PENDING)
+                .outboxStatus(OutboxStatus.STARTED)
+                .build();
+        when(paymentOutboxRepository.claimBatch(eq(ORDER_SAGA_NAME), anyList(), anyInt()))
+                .thenReturn(List.of(sentMessage, failedMessage));
+        doAnswer(invocation -> {
+            OrderPaymentOutboxMessage message = invocation.getArgument(0);
+            BiConsumer<OrderPaymentOutboxMessage, OutboxStatus> outboxCallback = invocation.getArgument(1);
+            outboxCallback.accept(message, message == sentMessage ? OutboxStatus.COMPLETED : OutboxStatus.FAILED);
+            return null;
+        }).when(paymentRequestMessagePublisher).publish(any(OrderPaymentOutboxMessage.class), any());
+
+        paymentOutboxScheduler.processOutboxMessage();
+
+        verify(paymentRequestMessagePublisher, times(2)).publish(any(OrderPaymentOutboxMessage.class), any());
+        verify(paymentOutboxRepository).updateOutboxStatus(eq(List.of(sentMessage.getId())),
+                eq(OutboxStatus.COMPLETED), any());
+        verify(paymentOutboxRepository).updateOutboxStatus(eq(List.of(failedMessage.getId())),
+                eq(OutboxStatus.FAILED), any());
+    }
+
+    private RestaurantAprovalResponse getRestaurantApprovalResponse(Order order, OrderApprovalStatus orderApprovalStatus) {
+        return RestaurantAprovalResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .sagaId(SAGA_ID.toString())
+                .orderId(order.getId().getValue().toString())
+                .restaurantId(RESTAURANT_ID.toString())
+                .createdAt(Instant.now())
+                .orderApprovalStatus(orderApprovalStatus)
+                .failureMessages(orderApprovalStatus == OrderApprovalStatus.REJECTED
+                        ? List.of("Product is not available") : List.of())
+                .build();
+    }
+
+    private OrderPaymentOutboxMessage getOrderPaymentOutboxMessage() {
+        OrderPaymentEventPayload orderPaymentEventPayload = OrderPaymentEventPayload.builder()
+                .orderId(ORDER_ID)
+                .customerId(CUSTOMER_ID)
+                .price(PRICE)
+                .createdAt(ZonedDateTime.now())
+                .paymentOrderStatus(PaymentOrderStatus.PENDING)
+                .build();
+
+        return OrderPaymentOutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .sagaId(SAGA_ID)
+                .createdAt(ZonedDateTime.now())
+                .type(ORDER_SAGA_NAME)
+                .payload(orderPaymentEventPayload)
+                .orderStatus(OrderStatus.PENDING)
+                .outboxStatus(OutboxStatus.STARTED)
+                .version(0)
+                .build();
+    }
+
+    private CreateOrderCommand commandOfCustomer(UUID customerId) {
+        return CreateOrderCommand.builder()
+                .customerId(customerId)
+                .restaurantId(RESTAURANT_ID)
+                .address(createOrderCommand.getAddress())
+                .price(PRICE)
+                .items(createOrderCommand.getItems())
+                .build();
+    }
+
+    private void stubExpensiveRestaurant(CreateOrderCommand command) {
+        when(restaurantRepository.findRestaurantInformation(orderDataMapper.createOrderCommandToRestaurant(command)))
+                .thenReturn(Optional.of(Restaurant.builder()
+                        .restaurantId(new RestaurantId(EXPENSIVE_RESTAURANT_ID))
+                        .products(List.of(new Product(new ProductId(PRODUCT_ID), "product-1",
+                                new Money(new BigDecimal("90000000000000000.00")))))
+                        .active(true)
+                        .build()));
+    }
+}
@@ -1,10 +1,13 @@
 package com.berkay.order.service.domain;
 
-import com.berkay.order.service.domain.ports.output.message.publisher.payment.OrderCancelledPaymentRequestMessagePublisher;
-import com.berkay.order.service.domain.ports.output.message.publisher.payment.OrderCreatedPaymentRequestMessagePublisher;
-import com.berkay.order.service.domain.ports.output.message.publisher.restaurantapproval.OrderPaidRestaurantRequestMessagePublisher;
+import com.berkay.domain.id.IdGenerator;
+import com.berkay.domain.id.UuidV7Generator;
+import com.berkay.order.service.domain.ports.output.message.publisher.payment.PaymentRequestMessagePublisher;
+import com.berkay.order.service.domain.ports.output.message.publisher.restaurantapproval.RestaurantApprovalRequestMessagePublisher;
+import com.berkay.order.service.domain.ports.output.repository.ApprovalOutboxRepository;
 import com.berkay.order.service.domain.ports.output.repository.CustomerRepository;
 import com.berkay.order.service.domain.ports.output.repository.OrderRepository;
+import com.berkay.order.service.domain.ports.output.repository.PaymentOutboxRepository;
 import com.berkay.order.service.domain.ports.output.repository.RestaurantRepository;
 import org.mockito.Mockito;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -14,18 +17,13 @@ import org.springframework.context.annotation.Bean;
 public class OrderTestConfiguration {
 
     @Bean
-    public OrderCreatedPaymentRequestMessagePublisher orderCreatedPaymentRequestMessagePublisher() {
-        return Mockito.mock(OrderCreatedPaymentRequestMessagePublisher.class);
+    public PaymentRequestMessagePublisher paymentRequestMessagePublisher() {
+        return Mockito.mock(PaymentRequestMessagePublisher.class);
     }
 
     @Bean
-    public OrderCancelledPaymentRequestMessagePublisher orderCancelledPaymentRequestMessagePublisher() {
-        return Mockito.mock(OrderCancelledPaymentRequestMessagePublisher.class);
-    }
-
-    @Bean
-    public OrderPaidRestaurantRequestMessagePublisher orderPaidRestaurantRequestMessagePublisher() {
-        return Mockito.mock(OrderPaidRestaurantRequestMessagePublisher.class);
+    public RestaurantApprovalRequestMessagePublisher restaurantApprovalRequestMessagePublisher() {
+        return Mockito.mock(RestaurantApprovalRequestMessagePublisher.class);
     }
 
     @Bean
@@ -43,8 +41,23 @@ public class OrderTestConfiguration {
         return Mockito.mock(CustomerRepository.class);
     }
 
+    @Bean
+    public PaymentOutboxRepository paymentOutboxRepository() {
+        return Mockito.mock(PaymentOutboxRepository.class);
+    }
+
+    @Bean
+    public ApprovalOutboxRepository approvalOutboxRepository() {
+        return Mockito.mock(ApprovalOutboxRepository.class);
+    }
+
+    @Bean
+    public IdGenerator idGenerator() {
+        return UuidV7Generator.getInstance();
+    }
+
     @Bean
     public OrderDomainService orderDomainService() {
-        return new OrderDomainServiceImpl();
+        return new OrderDomainServiceImpl(idGenerator());
     }
 }
@@ -0,0 +1,95 @@
+package com.berkay.order.service.domain.timeout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Drives a wheel without a ticker thread: every advance moves the clock one tick and runs that tick
+public class HashedTimingWheelTest {
+
+    private static final long TICK_MS = 100;
+    private static final int WHEEL_SIZE = 4096;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<List<String>> expiries = new ArrayList<>();
+    private final HashedTimingWheel<String> timingWheel =
+            new HashedTimingWheel<>(TICK_MS, TimeUnit.MILLISECONDS, WHEEL_SIZE, expiries::add, clock::get);
+
+    @Test
+    public void testExpiresAfterMultipleRotations() {
+        // 600s are 6000 ticks, the timeout passes its bucket once before the rotation it expires in
+        timingWheel.schedule("order", 600, TimeUnit.SECONDS);
+
+        advance(6000);
+        assertEquals(List.of(), expiries);
+        assertEquals(1, timingWheel.pendingTimeouts());
+        advance(1);
+        assertEquals(List.of(List.of("order")), expiries);
+        assertEquals(0, timingWheel.pendingTimeouts());
+    }
+
+    @Test
+    public void testCancelBeforeTransfer() {
+        HashedTimingWheel.Timeout<String> timeout = timingWheel.schedule("order", TICK_MS, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timingWheel.pendingTimeouts());
+
+        advance(3);
+        assertEquals(List.of(), expiries);
+    }
+
+    @Test
+    public void testCancelAfterTransfer() {
+        HashedTimingWheel.Timeout<String> cancelled = timingWheel.schedule("cancelled", 5 * TICK_MS, TimeUnit.MILLISECONDS);
+        timingWheel.schedule("expired", 5 * TICK_MS, TimeUnit.MILLISECONDS);
+        advance(1);
+        assertTrue(cancelled.cancel());
+
+        advance(5);
+        assertEquals(List.of(List.of("expired")), expiries);
+        assertFalse(cancelled.cancel());
+        assertEquals(0, timingWheel.pendingTimeouts());
+    }
+
+    @Test
+    public void testOverdueDeadlineExpiresInNextTick() {
+        advance(20);
+        // A deadline 10 ticks in the past would wait a full rotation in its own bucket
+        HashedTimingWheel.Timeout<String> timeout = timingWheel.schedule("order", -10 * TICK_MS, TimeUnit.MILLISECONDS);
+
+        advance(1);
+        assertEquals(List.of(List.of("order")), expiries);
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    public void testTransfersCarryOverToNextTick() {
+        int timeouts = HashedTimingWheel.MAX_TRANSFERS_PER_TICK + 1;
+        for (int i = 0; i < timeouts; i++) {
+            timingWheel.schedule("order-" + i, 0, TimeUnit.MILLISECONDS);
+        }
+
+        // The first tick transfers and expires at most MAX_TRANSFERS_PER_TICK, the rest is already overdue
+        // when it is transferred in the next tick and expires right away
+        advance(1);
+        assertEquals(1, expiries.size());
+        assertEquals(HashedTimingWheel.MAX_TRANSFERS_PER_TICK, expiries.get(0).size());
+        assertEquals(1, timingWheel.pendingTimeouts());
+        advance(1);
+        assertEquals(List.of("order-" + HashedTimingWheel.MAX_TRANSFERS_PER_TICK), expiries.get(1));
+        assertEquals(0, timingWheel.pendingTimeouts());
+    }
+
+    private void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(TICK_MS));
+            timingWheel.advance();
+        }
+    }
+}
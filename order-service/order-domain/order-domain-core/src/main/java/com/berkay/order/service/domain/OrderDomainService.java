@@ -1,17 +1,26 @@
 package com.berkay.order.service.domain;
 
+import com.berkay.domain.valueobject.RestaurantId;
 import com.berkay.order.service.domain.entity.Order;
 import com.berkay.order.service.domain.entity.Restaurant;
 import com.berkay.order.service.domain.event.OrderCancelledEvent;
 import com.berkay.order.service.domain.event.OrderCreatedEvent;
 import com.berkay.order.service.domain.event.OrderPaidEvent;
+import com.berkay.order.service.domain.valueobject.OrderInitiationResult;
+import com.berkay.order.service.domain.valueobject.OrderTransition;
+import com.berkay.order.service.domain.valueobject.OrderTransitionResult;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface OrderDomainService {
 
     OrderCreatedEvent validateAndInitiateOrder(Order order, Restaurant restaurant);
 
+    // Rejected orders are reported in the result list instead of being thrown
+    List<OrderInitiationResult> validateAndInitiateOrders(List<Order> orders, Map<RestaurantId, Restaurant> restaurants);
+
     OrderPaidEvent payOrder(Order order);
 
     void approveOrder(Order order);
@@ -19,4 +28,8 @@ public interface OrderDomainService {
     OrderCancelledEvent cancelOrderPayment(Order order, List<String> failureMessages);
 
     void cancelOrder(Order order, List<String> failureMessages);
+
+    // Applies one saga transition to many orders, orders in the wrong state are reported as not applied
+    List<OrderTransitionResult> applyTransitions(Collection<Order> orders, OrderTransition transition,
+                                                 List<String> failureMessages);
 }
@@ -1,33 +1,86 @@
 package com.berkay.order.service.domain;
 
+import com.berkay.domain.exception.DomainException;
+import com.berkay.domain.id.IdGenerator;
+import com.berkay.domain.id.UuidV7Generator;
+import com.berkay.domain.valueobject.MoneyAccumulator;
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.domain.valueobject.RestaurantId;
 import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.entity.OrderItem;
 import com.berkay.order.service.domain.entity.Product;
 import com.berkay.order.service.domain.entity.Restaurant;
 import com.berkay.order.service.domain.event.OrderCancelledEvent;
 import com.berkay.order.service.domain.event.OrderCreatedEvent;
+import com.berkay.order.service.domain.event.OrderEvent;
 import com.berkay.order.service.domain.event.OrderPaidEvent;
-import com.berkay.order.service.domain.exception.OrderDomainException;
+import com.berkay.order.service.domain.valueobject.OrderInitiationResult;
+import com.berkay.order.service.domain.valueobject.OrderTransition;
+import com.berkay.order.service.domain.valueobject.OrderTransitionResult;
+import com.berkay.order.service.domain.valueobject.OrderValidationError;
+import com.berkay.order.service.domain.valueobject.OrderValidationResult;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 @Slf4j
-public class OrderDomainServiceImpl implements OrderDomainService {
+public class OrderDomainServiceImpl implements OrderDomainService, AutoCloseable {
 
     private static final String UTC = "UTC";
 
+    // Orders per fork join leaf task, small enough to balance work and large enough to amortize forking
+    private static final int BATCH_SPLIT_THRESHOLD = 32;
+
+    private final IdGenerator idGenerator;
+
+    // Bounded pool for bulk validation, so batches don't compete with the common pool
+    private final ForkJoinPool validationPool;
+
+    public OrderDomainServiceImpl() {
+        this(UuidV7Generator.getInstance());
+    }
+
+    public OrderDomainServiceImpl(IdGenerator idGenerator) {
+        this(idGenerator, Runtime.getRuntime().availableProcessors());
+    }
+
+    public OrderDomainServiceImpl(IdGenerator idGenerator, int validationParallelism) {
+        this.idGenerator = idGenerator;
+        this.validationPool = new ForkJoinPool(validationParallelism);
+    }
+
+    // Spring calls this as the inferred destroy method of the bean, running batches are allowed to finish
+    @Override
+    public void close() {
+        validationPool.shutdown();
+    }
+
     // Product id and item price comes from client. To be sure it is the real price of product
     // we need to validate with Restaurant entity
     @Override
     public OrderCreatedEvent validateAndInitiateOrder(Order order, Restaurant restaurant) {
-        validateRestaurant(restaurant);
-        setOrderProductInformation(order, restaurant);
-        order.validateOrder();
-        order.initializeOrder();
+        validateOrderAgainstRestaurant(order, restaurant, new MoneyAccumulator()).throwIfInvalid();
+        OrderCreatedEvent orderCreatedEvent = initiateOrder(order);
         log.info("Order with id: {} is initiated", order.getId().getValue());
-        return new OrderCreatedEvent(order, ZonedDateTime.now(ZoneId.of(UTC)));
+        return orderCreatedEvent;
+    }
+
+    // Orders are validated in parallel, results keep the order of the given list
+    @Override
+    public List<OrderInitiationResult> validateAndInitiateOrders(List<Order> orders,
+                                                                 Map<RestaurantId, Restaurant> restaurants) {
+        OrderInitiationResult[] results = new OrderInitiationResult[orders.size()];
+        validationPool.invoke(new ValidateOrdersTask(orders, restaurants, results, 0, orders.size()));
+        log.info("{} orders are validated in batch", orders.size());
+        return Arrays.asList(results);
     }
 
     @Override
@@ -56,20 +109,119 @@ public class OrderDomainServiceImpl implements OrderDomainService {
         log.info("Order with id: {} is cancelled", order.getId().getValue());
     }
 
-    private void validateRestaurant(Restaurant restaurant) {
+    @Override
+    public List<OrderTransitionResult> applyTransitions(Collection<Order> orders, OrderTransition transition,
+                                                        List<String> failureMessages) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of(UTC));
+        List<OrderTransitionResult> results = new ArrayList<>(orders.size());
+        int applied = 0;
+        for (Order order : orders) {
+            OrderStatus previousStatus = order.getOrderStatus();
+            if (order.tryTransition(transition, failureMessages)) {
+                applied++;
+                results.add(new OrderTransitionResult(order, previousStatus, true, transitionEvent(order, transition, now)));
+            } else {
+                results.add(new OrderTransitionResult(order, previousStatus, false, null));
+            }
+        }
+        log.info("{} transition is applied to {} of {} orders", transition, applied, orders.size());
+        return results;
+    }
+
+    private OrderEvent transitionEvent(Order order, OrderTransition transition, ZonedDateTime createdAt) {
+        return switch (transition) {
+            case PAY -> new OrderPaidEvent(order, createdAt);
+            case INIT_CANCEL -> new OrderCancelledEvent(order, createdAt);
+            default -> null;
+        };
+    }
+
+    private OrderValidationResult validateOrderAgainstRestaurant(Order order, Restaurant restaurant,
+                                                                 MoneyAccumulator accumulator) {
+        OrderValidationResult result = validateRestaurant(restaurant);
+        if (result.isValid()) {
+            result = setOrderProductInformation(order, restaurant);
+        }
+        if (result.isValid()) {
+            result = order.checkOrder(accumulator);
+        }
+        return result;
+    }
+
+    private OrderCreatedEvent initiateOrder(Order order) {
+        order.initializeOrder(idGenerator);
+        return new OrderCreatedEvent(order, ZonedDateTime.now(ZoneId.of(UTC)));
+    }
+
+    private OrderInitiationResult initiateOrderInBatch(Order order, Map<RestaurantId, Restaurant> restaurants,
+                                                       MoneyAccumulator accumulator) {
+        Restaurant restaurant = restaurants.get(order.getRestaurantId());
+        if (restaurant == null) {
+            return OrderInitiationResult.rejected(order, OrderValidationResult.failure(
+                    OrderValidationError.RESTAURANT_NOT_FOUND, order.getRestaurantId().getValue()));
+        }
+        // A domain error fails this order only, thrown from a leaf task it would fail the whole batch
+        OrderValidationResult result;
+        try {
+            result = validateOrderAgainstRestaurant(order, restaurant, accumulator);
+        } catch (DomainException e) {
+            result = OrderValidationResult.failure(OrderValidationError.ORDER_NOT_VALID, e.getMessage());
+        }
+        return result.isValid()
+                ? OrderInitiationResult.initiated(initiateOrder(order))
+                : OrderInitiationResult.rejected(order, result);
+    }
+
+    private OrderValidationResult validateRestaurant(Restaurant restaurant) {
         if (!restaurant.isActive()) {
-            throw new OrderDomainException("Restaurant with id " + restaurant.getId().getValue()
-                    + " is currently not active");
+            return OrderValidationResult.failure(OrderValidationError.RESTAURANT_NOT_ACTIVE,
+                    restaurant.getId().getValue());
         }
+        return OrderValidationResult.VALID;
     }
 
     // Ensuring order product information from client is same with Restaurant's product
-    private void setOrderProductInformation(Order order, Restaurant restaurant) {
-        order.getItems().forEach(orderItem -> restaurant.getProducts().forEach(restaurantProduct -> {
+    private OrderValidationResult setOrderProductInformation(Order order, Restaurant restaurant) {
+        for (OrderItem orderItem : order.getItems()) {
             Product currentProduct = orderItem.getProduct();
-            if (currentProduct.equals(restaurantProduct)){
-                currentProduct.updateWithConfirmedNameAndPrice(restaurantProduct.getName(), restaurantProduct.getPrice());
+            Product restaurantProduct = restaurant.findProduct(currentProduct.getId());
+            if (restaurantProduct == null) {
+                return OrderValidationResult.failure(OrderValidationError.PRODUCT_NOT_AVAILABLE,
+                        currentProduct.getId().getValue(), restaurant.getId().getValue());
+            }
+            orderItem.confirmProduct(restaurantProduct);
+        }
+        return OrderValidationResult.VALID;
+    }
+
+    private final class ValidateOrdersTask extends RecursiveAction {
+        private final List<Order> orders;
+        private final Map<RestaurantId, Restaurant> restaurants;
+        private final OrderInitiationResult[] results;
+        private final int from;
+        private final int to;
+
+        private ValidateOrdersTask(List<Order> orders, Map<RestaurantId, Restaurant> restaurants,
+                                   OrderInitiationResult[] results, int from, int to) {
+            this.orders = orders;
+            this.restaurants = restaurants;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SPLIT_THRESHOLD) {
+                MoneyAccumulator accumulator = new MoneyAccumulator();
+                for (int i = from; i < to; i++) {
+                    results[i] = initiateOrderInBatch(orders.get(i), restaurants, accumulator);
+                }
+                return;
             }
-        }));
+            int middle = (from + to) >>> 1;
+            invokeAll(new ValidateOrdersTask(orders, restaurants, results, from, middle),
+                    new ValidateOrdersTask(orders, restaurants, results, middle, to));
+        }
     }
 }
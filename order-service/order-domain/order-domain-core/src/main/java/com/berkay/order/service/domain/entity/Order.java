@@ -1,19 +1,26 @@
 package com.berkay.order.service.domain.entity;
 
 import com.berkay.domain.entity.AggregateRoot;
+import com.berkay.domain.id.IdGenerator;
 import com.berkay.domain.valueobject.*;
 import com.berkay.order.service.domain.exception.OrderDomainException;
+import com.berkay.order.service.domain.valueobject.FailureReasonRegistry;
 import com.berkay.order.service.domain.valueobject.OrderItemId;
+import com.berkay.order.service.domain.valueobject.OrderTransition;
+import com.berkay.order.service.domain.valueobject.OrderValidationError;
+import com.berkay.order.service.domain.valueobject.OrderValidationResult;
 import com.berkay.order.service.domain.valueobject.StreetAddress;
 import com.berkay.order.service.domain.valueobject.TrackingId;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
 
 // Order is an entity class.
 // Entity classes contains the methods to complete critical business rules and can act as an
 // aggregate root, and in that case forcing all business invariants is the responsibility of that entity.
 public class Order extends AggregateRoot<OrderId> {
+    private static final int[] NO_FAILURE_CODES = new int[0];
+
     // Comes from outside
     // These are final because fixed on first order request.
     private final CustomerId customerId;
@@ -26,98 +33,147 @@ public class Order extends AggregateRoot<OrderId> {
     private TrackingId trackingId;
     // With the order status, saga states can be tracked
     private OrderStatus orderStatus;
-    // Will be described later if needed
-    private List<String> failureMessages;
-
-    public void initializeOrder() {
-        setId(new OrderId(UUID.randomUUID()));
-        trackingId = new TrackingId(UUID.randomUUID());
+    // Failure reasons are kept as codes of known reasons, see FailureReasonRegistry. Parameters are only
+    // allocated once a reason has a per order part or is not known, otherwise the array stays null.
+    private int[] failureCodes = NO_FAILURE_CODES;
+    private String[] failureParameters;
+
+    public void initializeOrder(IdGenerator idGenerator) {
+        setId(new OrderId(idGenerator.generate()));
+        trackingId = new TrackingId(idGenerator.generate());
         orderStatus = OrderStatus.PENDING;
         initializeOrderItems();
     }
 
     public void validateOrder() {
-        validateInitialOrder();
-        validateTotalPrice();
-        validateItemsPrice();
+        checkOrder().throwIfInvalid();
     }
 
-    public void pay() {
-        if (orderStatus != OrderStatus.PENDING) {
-            throw new OrderDomainException("Order is not in correct state for payment");
+    // Same checks as validateOrder, but a rejection is returned instead of thrown
+    public OrderValidationResult checkOrder() {
+        return checkOrder(new MoneyAccumulator());
+    }
+
+    // The accumulator is reset and reused for the items total, so batch validation can keep one per thread
+    public OrderValidationResult checkOrder(MoneyAccumulator accumulator) {
+        OrderValidationResult result = validateInitialOrder();
+        if (result.isValid()) {
+            result = validateTotalPrice();
+        }
+        if (result.isValid()) {
+            result = validateItemsPrice(accumulator.reset(price.getCurrency()));
         }
-        // If order status is pending, it means we can pay
-        orderStatus = OrderStatus.PAID;
+        return result;
+    }
+
+    // If order status is pending, it means we can pay
+    public void pay() {
+        applyTransition(OrderTransition.PAY, null);
     }
 
     // If price paid, then restaurant checks if order payment is approved
     public void approve() {
-        if (orderStatus != OrderStatus.PAID) {
-            throw new OrderDomainException("Order is not in correct state for approval");
-        }
-
-        orderStatus = OrderStatus.APPROVED;
+        applyTransition(OrderTransition.APPROVE, null);
     }
 
     // initCancel and cancel methods are for saga compensating methods
     // initCancel comes after payment issue, Cancel comes after cancel operation in pending state that way before attempting to pay
     public void initCancel(List<String> failureMessages) {
-        if (orderStatus != OrderStatus.PAID) {
-            throw new OrderDomainException("Order is not in correct state for initCancel operation!");
-        }
-
-        orderStatus = OrderStatus.CANCELLING;
-        updateFailureMessages(failureMessages);
+        applyTransition(OrderTransition.INIT_CANCEL, failureMessages);
     }
 
     // To set cancelled status, present status must be Cancelling or Pending, so it means payment never completed
     public void cancel(List<String> failureMessages) {
-        if (!(orderStatus == OrderStatus.CANCELLING || orderStatus == OrderStatus.PENDING)) {
-            throw new OrderDomainException("Order is not in correct state for cancel operation!");
-        }
-        orderStatus = OrderStatus.CANCELLED;
-        updateFailureMessages(failureMessages);
+        applyTransition(OrderTransition.CANCEL, failureMessages);
     }
 
-    private void updateFailureMessages(List<String> failureMessages) {
-        if (this.failureMessages != null && failureMessages != null) {
-            this.failureMessages.addAll(failureMessages.stream().filter(message -> !message.isEmpty()).toList());
+    // Non throwing variant of the transitions above, returns false and leaves the order untouched
+    // if the transition isn't allowed from the current status
+    public boolean tryTransition(OrderTransition transition, List<String> failureMessages) {
+        OrderStatus targetStatus = transition.targetStatus(orderStatus);
+        if (targetStatus == null) {
+            return false;
         }
-        if (failureMessages == null) {
-            this.failureMessages = failureMessages;
+        orderStatus = targetStatus;
+        if (transition.recordsFailureMessages()) {
+            updateFailureMessages(failureMessages);
         }
+        return true;
     }
 
+    private void applyTransition(OrderTransition transition, List<String> failureMessages) {
+        if (!tryTransition(transition, failureMessages)) {
+            throw new OrderDomainException(transition.getInvalidStateMessage());
+        }
+    }
 
-    private void validateItemsPrice() {
-        Money orderItemsTotal = items.stream().map(orderItem -> {
-            validateItemPrice(orderItem);
-            return orderItem.getSubtotal(); // gets all order item's subtotal in map
-        }).reduce(Money.ZERO, Money::add); // add all order items' subtotal to get order items total so it reduces map to one value
+    private void updateFailureMessages(List<String> failureMessages) {
+        if (failureMessages == null) {
+            return;
+        }
+        int added = 0;
+        for (String message : failureMessages) {
+            if (!message.isEmpty()) {
+                added++;
+            }
+        }
+        if (added == 0) {
+            return;
+        }
 
-        if (!price.equals(orderItemsTotal)) {
-            throw new OrderDomainException("Total price (" + price.getAmount()
-                    + ") is not equal to order items total (" + orderItemsTotal.getAmount() + ")!");
+        int offset = failureCodes.length;
+        failureCodes = Arrays.copyOf(failureCodes, offset + added);
+        if (failureParameters != null) {
+            failureParameters = Arrays.copyOf(failureParameters, offset + added);
+        }
+        for (String message : failureMessages) {
+            if (message.isEmpty()) {
+                continue;
+            }
+            int code = FailureReasonRegistry.codeOf(message);
+            failureCodes[offset] = code;
+            String parameter = FailureReasonRegistry.parameterOf(code, message);
+            if (parameter != null) {
+                if (failureParameters == null) {
+                    failureParameters = new String[failureCodes.length];
+                }
+                failureParameters[offset] = parameter;
+            }
+            offset++;
         }
     }
 
-    private void validateItemPrice(OrderItem orderItem) {
-        if (!orderItem.isPriceValid()) {
-            throw new OrderDomainException("Order item price: " + orderItem.getPrice().getAmount()
-                    + " is not valid for product " + orderItem.getProduct().getId().getValue());
+    // Each item is checked and added to the total in the same loop
+    private OrderValidationResult validateItemsPrice(MoneyAccumulator orderItemsTotal) {
+        for (OrderItem orderItem : items) {
+            if (!orderItem.isPriceValid(orderItemsTotal)) {
+                return OrderValidationResult.failure(OrderValidationError.ITEM_PRICE_INVALID,
+                        orderItem.getPrice(), orderItem.getProduct().getId().getValue());
+            }
+        }
+
+        if (orderItemsTotal.isOverflowed()) {
+            return OrderValidationResult.failure(OrderValidationError.ITEMS_TOTAL_OUT_OF_RANGE);
         }
+        if (!orderItemsTotal.isEqualTo(price)) {
+            return OrderValidationResult.failure(OrderValidationError.TOTAL_PRICE_MISMATCH,
+                    price, orderItemsTotal.toMoney());
+        }
+        return OrderValidationResult.VALID;
     }
 
-    private void validateTotalPrice() {
+    private OrderValidationResult validateTotalPrice() {
         if (price == null || !price.isGreaterThanZero()) {
-            throw new OrderDomainException("Total price must be greater than zero!");
+            return OrderValidationResult.failure(OrderValidationError.TOTAL_PRICE_NOT_POSITIVE);
         }
+        return OrderValidationResult.VALID;
     }
 
-    private void validateInitialOrder() {
+    private OrderValidationResult validateInitialOrder() {
         if (orderStatus != null || getId() != null) {
-            throw new OrderDomainException("Order is not in correct state for initialization");
+            return OrderValidationResult.failure(OrderValidationError.INVALID_INITIAL_STATE);
         }
+        return OrderValidationResult.VALID;
     }
 
     // Each order item will have a unique id {OrderId, OrderItemId}, because to distinguish
@@ -139,7 +195,7 @@ public class Order extends AggregateRoot<OrderId> {
         items = builder.items;
         trackingId = builder.trackingId;
         orderStatus = builder.status;
-        failureMessages = builder.failureMessages;
+        updateFailureMessages(builder.failureMessages);
     }
 
 
@@ -171,8 +227,12 @@ public class Order extends AggregateRoot<OrderId> {
         return orderStatus;
     }
 
-    public List<String> getFailureMessages() {
-        return failureMessages;
+    public int[] getFailureCodes() {
+        return failureCodes;
+    }
+
+    public String[] getFailureParameters() {
+        return failureParameters;
     }
 
     public static Builder builder() {
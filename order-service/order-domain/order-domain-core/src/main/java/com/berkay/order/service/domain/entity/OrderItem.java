@@ -2,12 +2,13 @@ package com.berkay.order.service.domain.entity;
 
 import com.berkay.domain.entity.BaseEntity;
 import com.berkay.domain.valueobject.Money;
+import com.berkay.domain.valueobject.MoneyAccumulator;
 import com.berkay.domain.valueobject.OrderId;
 import com.berkay.order.service.domain.valueobject.OrderItemId;
 
 public class OrderItem extends BaseEntity<OrderItemId> {
     private OrderId orderId;
-    private final Product product;
+    private Product product;
     private final int quantity;
     private final Money price;
     private final Money subtotal;
@@ -20,6 +21,12 @@ public class OrderItem extends BaseEntity<OrderItemId> {
         subtotal = builder.subtotal;
     }
 
+    // Replaces the client supplied product with the restaurant's confirmed name and price. The catalog
+    // product is immutable, so the item can refer to it instead of copying or mutating anything.
+    public void confirmProduct(Product restaurantProduct) {
+        this.product = restaurantProduct;
+    }
+
     void initializeOrderItem(OrderId orderId, OrderItemId orderItemId) {
         this.orderId = orderId;
         super.setId(orderItemId);
@@ -30,7 +37,17 @@ public class OrderItem extends BaseEntity<OrderItemId> {
         // and order item's subtotal must be equal to order item's price multiplied by quantity
         return price.isGreaterThanZero()
                 && price.equals(product.getPrice())
-                && price.multiply(quantity).equals(subtotal);
+                && price.isMultipleEqualTo(quantity, subtotal);
+    }
+
+    // Validation and summing fused into one step: the subtotal is added to the running total
+    // only if the item price is valid and in the total's currency
+    boolean isPriceValid(MoneyAccumulator subtotals) {
+        if (!isPriceValid() || !subtotal.getCurrency().equals(subtotals.getCurrency())) {
+            return false;
+        }
+        subtotals.add(subtotal);
+        return true;
     }
 
     public OrderId getOrderId() {
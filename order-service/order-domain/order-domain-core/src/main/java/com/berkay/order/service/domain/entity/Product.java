@@ -4,9 +4,10 @@ import com.berkay.domain.entity.BaseEntity;
 import com.berkay.domain.valueobject.Money;
 import com.berkay.domain.valueobject.ProductId;
 
+// Immutable, so catalog products can be shared between restaurant menus and order items
 public class Product extends BaseEntity<ProductId> {
-    private String name;
-    private Money price;
+    private final String name;
+    private final Money price;
 
     public Product(ProductId productId, String name, Money price) {
         super.setId(productId);
@@ -15,12 +16,7 @@ public class Product extends BaseEntity<ProductId> {
     }
 
     public Product(ProductId productId) {
-        super.setId(productId);
-    }
-
-    public void updateWithConfirmedNameAndPrice(String name, Money price) {
-        this.name = name;
-        this.price = price;
+        this(productId, null, null);
     }
 
     public String getName() {
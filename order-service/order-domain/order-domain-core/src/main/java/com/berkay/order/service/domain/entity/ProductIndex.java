@@ -0,0 +1,74 @@
+package com.berkay.order.service.domain.entity;
+
+import com.berkay.domain.valueobject.ProductId;
+
+import java.util.List;
+import java.util.UUID;
+
+// Immutable open addressing index of a restaurant's products. Keys are stored as the two longs of the
+// product UUID, so a lookup doesn't box anything or call BaseEntity.equals on every menu entry.
+public final class ProductIndex {
+
+    private static final ProductIndex EMPTY = new ProductIndex(List.of());
+
+    private final long[] mostSignificantBits;
+    private final long[] leastSignificantBits;
+    private final Product[] products;
+    private final int mask;
+    private final int size;
+
+    private ProductIndex(List<Product> productList) {
+        // Load factor is kept under 0.5 so probe chains stay short
+        int capacity = Integer.highestOneBit(Math.max(2, productList.size() * 2 - 1)) << 1;
+        mostSignificantBits = new long[capacity];
+        leastSignificantBits = new long[capacity];
+        products = new Product[capacity];
+        mask = capacity - 1;
+
+        int count = 0;
+        for (Product product : productList) {
+            UUID key = product.getId().getValue();
+            int slot = findSlot(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            if (products[slot] == null) {
+                count++;
+            }
+            // Same product id listed twice: the last one wins, as it did with the old nested scan
+            mostSignificantBits[slot] = key.getMostSignificantBits();
+            leastSignificantBits[slot] = key.getLeastSignificantBits();
+            products[slot] = product;
+        }
+        size = count;
+    }
+
+    public static ProductIndex of(List<Product> products) {
+        return products == null || products.isEmpty() ? EMPTY : new ProductIndex(products);
+    }
+
+    public Product find(ProductId productId) {
+        UUID key = productId.getValue();
+        return products[findSlot(key.getMostSignificantBits(), key.getLeastSignificantBits())];
+    }
+
+    public boolean contains(ProductId productId) {
+        return find(productId) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns the slot holding the key, or the empty slot where it would be inserted
+    private int findSlot(long msb, long lsb) {
+        int slot = hash(msb, lsb) & mask;
+        while (products[slot] != null
+                && (mostSignificantBits[slot] != msb || leastSignificantBits[slot] != lsb)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,17 +1,19 @@
 package com.berkay.order.service.domain.entity;
 
 import com.berkay.domain.entity.AggregateRoot;
+import com.berkay.domain.valueobject.ProductId;
 import com.berkay.domain.valueobject.RestaurantId;
 
 import java.util.List;
 
 public class Restaurant extends AggregateRoot<RestaurantId> {
-    private final List<Product> products;
-    private boolean active;
+    // Immutable snapshot with a prebuilt product index, shared by every order validated against it
+    private final RestaurantMenu menu;
+    private final boolean active;
 
     private Restaurant(Builder builder) {
         super.setId(builder.restaurantId);
-        products = builder.products;
+        menu = builder.menu != null ? builder.menu : RestaurantMenu.of(0, builder.products);
         active = builder.active;
     }
 
@@ -20,7 +22,16 @@ public class Restaurant extends AggregateRoot<RestaurantId> {
     }
 
     public List<Product> getProducts() {
-        return products;
+        return menu.getProducts();
+    }
+
+    public RestaurantMenu getMenu() {
+        return menu;
+    }
+
+    // Returns null if the restaurant doesn't serve the product
+    public Product findProduct(ProductId productId) {
+        return menu.findProduct(productId);
     }
 
     public boolean isActive() {
@@ -30,6 +41,7 @@ public class Restaurant extends AggregateRoot<RestaurantId> {
     public static final class Builder {
         private RestaurantId restaurantId;
         private List<Product> products;
+        private RestaurantMenu menu;
         private boolean active;
 
         private Builder() {
@@ -45,6 +57,11 @@ public class Restaurant extends AggregateRoot<RestaurantId> {
             return this;
         }
 
+        public Builder menu(RestaurantMenu val) {
+            menu = val;
+            return this;
+        }
+
         public Builder active(boolean val) {
             active = val;
             return this;
@@ -0,0 +1,44 @@
+package com.berkay.order.service.domain.entity;
+
+import com.berkay.domain.valueobject.ProductId;
+
+import java.util.List;
+
+// Immutable, versioned snapshot of a restaurant's menu. A menu change never modifies a snapshot,
+// it creates the next version, so a snapshot can be read by any number of threads without locking.
+public final class RestaurantMenu {
+
+    public static final RestaurantMenu EMPTY = new RestaurantMenu(0, List.of());
+
+    private final long version;
+    private final List<Product> products;
+    private final ProductIndex productIndex;
+
+    private RestaurantMenu(long version, List<Product> products) {
+        this.version = version;
+        this.products = products;
+        this.productIndex = ProductIndex.of(products);
+    }
+
+    public static RestaurantMenu of(long version, List<Product> products) {
+        return products == null ? new RestaurantMenu(version, List.of()) : new RestaurantMenu(version, List.copyOf(products));
+    }
+
+    // Copy on write: the current snapshot stays valid for threads still reading it
+    public RestaurantMenu withProducts(List<Product> products) {
+        return of(version + 1, products);
+    }
+
+    // Returns null if the product isn't on the menu
+    public Product findProduct(ProductId productId) {
+        return productIndex.find(productId);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+}
@@ -11,4 +11,9 @@ public class OrderDomainException extends DomainException {
     public OrderDomainException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    protected OrderDomainException(String message, Throwable cause, boolean enableSuppression,
+                                   boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
 }
@@ -0,0 +1,10 @@
+package com.berkay.order.service.domain.exception;
+
+// Thrown when an order is shed because the service is over its limit for the order's restaurant.
+// It is expected under load, so it doesn't fill a stack trace. Callers should retry later.
+public class OrderOverloadException extends OrderDomainException {
+
+    public OrderOverloadException(String message) {
+        super(message, null, false, false);
+    }
+}
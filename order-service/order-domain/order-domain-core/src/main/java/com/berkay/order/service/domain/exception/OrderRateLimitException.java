@@ -0,0 +1,10 @@
+package com.berkay.order.service.domain.exception;
+
+// Thrown when a customer sends orders faster than its rate limit allows. Rejections are cheap on purpose,
+// so it doesn't fill a stack trace.
+public class OrderRateLimitException extends OrderDomainException {
+
+    public OrderRateLimitException(String message) {
+        super(message, null, false, false);
+    }
+}
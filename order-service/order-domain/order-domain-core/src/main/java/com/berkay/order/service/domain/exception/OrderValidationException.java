@@ -0,0 +1,24 @@
+package com.berkay.order.service.domain.exception;
+
+import com.berkay.order.service.domain.valueobject.OrderValidationResult;
+
+// Thrown when a rejected order has to surface as an exception. It doesn't fill a stack trace and its
+// message is only formatted when somebody reads it, so throwing costs about the same as returning.
+public class OrderValidationException extends OrderDomainException {
+
+    private final transient OrderValidationResult validationResult;
+
+    public OrderValidationException(OrderValidationResult validationResult) {
+        super(null, null, false, false);
+        this.validationResult = validationResult;
+    }
+
+    public OrderValidationResult getValidationResult() {
+        return validationResult;
+    }
+
+    @Override
+    public String getMessage() {
+        return validationResult.getMessage();
+    }
+}
@@ -0,0 +1,105 @@
+package com.berkay.order.service.domain.valueobject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Maps the known failure reasons to small int codes, so orders keep an int[] instead of a list of repeated strings.
+// A reason is a template with at most one %s, only the part that differs per order (e.g. a customer id) is kept as
+// a parameter. Text that matches no template gets code 0 and is kept whole as its parameter.
+// Codes are only ever appended, so a stored code keeps its meaning. Text is only rendered when an order is
+// presented to a client.
+public final class FailureReasonRegistry {
+
+    public static final int UNREGISTERED = 0;
+
+    public static final String PAYMENT_TIMEOUT = "Payment response timed out";
+    public static final String APPROVAL_TIMEOUT = "Restaurant approval response timed out";
+
+    private static final String PARAMETER = "%s";
+
+    // Index is the code. Besides the saga timeouts of this service these are the reasons the payment and
+    // restaurant services send, keep them in line with the texts of those services.
+    private static final String[] TEMPLATES = {
+            PARAMETER,
+            PAYMENT_TIMEOUT,
+            APPROVAL_TIMEOUT,
+            "Total price must be greater than zero!",
+            "Customer with id=%s doesn't have enough credit for payment!",
+            "Customer with id=%s doesn't have enough credit according to credit history!",
+            "Product with id: %s is not available",
+            "Price total is not correct for order: %s",
+    };
+
+    // Reasons without a parameter are found by their text, the few templates with one by prefix and suffix
+    private static final Map<String, Integer> codesByReason = new HashMap<>();
+    private static final int[] parameterizedCodes;
+    private static final String[] prefixes = new String[TEMPLATES.length];
+    private static final String[] suffixes = new String[TEMPLATES.length];
+
+    static {
+        List<Integer> parameterized = new ArrayList<>();
+        for (int code = UNREGISTERED + 1; code < TEMPLATES.length; code++) {
+            String template = TEMPLATES[code];
+            int parameterIndex = template.indexOf(PARAMETER);
+            if (parameterIndex < 0) {
+                codesByReason.put(template, code);
+                continue;
+            }
+            prefixes[code] = template.substring(0, parameterIndex);
+            suffixes[code] = template.substring(parameterIndex + PARAMETER.length());
+            parameterized.add(code);
+        }
+        parameterizedCodes = parameterized.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private FailureReasonRegistry() {
+    }
+
+    // Returns UNREGISTERED for text that matches no template
+    public static int codeOf(String reason) {
+        Integer code = codesByReason.get(reason);
+        if (code != null) {
+            return code;
+        }
+        for (int parameterizedCode : parameterizedCodes) {
+            if (matches(parameterizedCode, reason)) {
+                return parameterizedCode;
+            }
+        }
+        return UNREGISTERED;
+    }
+
+    // The part of the reason that differs per order, null if the template has none
+    public static String parameterOf(int code, String reason) {
+        if (code == UNREGISTERED) {
+            return reason;
+        }
+        if (prefixes[code] == null) {
+            return null;
+        }
+        return reason.substring(prefixes[code].length(), reason.length() - suffixes[code].length());
+    }
+
+    public static String render(int code, String parameter) {
+        if (code == UNREGISTERED) {
+            return parameter;
+        }
+        return prefixes[code] == null ? TEMPLATES[code] : prefixes[code] + parameter + suffixes[code];
+    }
+
+    // Renders the parallel code and parameter arrays of an order, parameters may be null
+    public static List<String> render(int[] codes, String[] parameters) {
+        List<String> messages = new ArrayList<>(codes.length);
+        for (int i = 0; i < codes.length; i++) {
+            messages.add(render(codes[i], parameters == null ? null : parameters[i]));
+        }
+        return messages;
+    }
+
+    private static boolean matches(int code, String reason) {
+        return reason.length() >= prefixes[code].length() + suffixes[code].length()
+                && reason.startsWith(prefixes[code]) && reason.endsWith(suffixes[code]);
+    }
+}
@@ -0,0 +1,47 @@
+package com.berkay.order.service.domain.valueobject;
+
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.event.OrderCreatedEvent;
+
+// Outcome of validating one order in a batch: either the created event or the reason it was rejected
+public class OrderInitiationResult {
+    private final Order order;
+    private final OrderCreatedEvent orderCreatedEvent;
+    private final OrderValidationResult validationResult;
+
+    private OrderInitiationResult(Order order, OrderCreatedEvent orderCreatedEvent,
+                                  OrderValidationResult validationResult) {
+        this.order = order;
+        this.orderCreatedEvent = orderCreatedEvent;
+        this.validationResult = validationResult;
+    }
+
+    public static OrderInitiationResult initiated(OrderCreatedEvent orderCreatedEvent) {
+        return new OrderInitiationResult(orderCreatedEvent.getOrder(), orderCreatedEvent, OrderValidationResult.VALID);
+    }
+
+    public static OrderInitiationResult rejected(Order order, OrderValidationResult validationResult) {
+        return new OrderInitiationResult(order, null, validationResult);
+    }
+
+    public boolean isInitiated() {
+        return orderCreatedEvent != null;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public OrderCreatedEvent getOrderCreatedEvent() {
+        return orderCreatedEvent;
+    }
+
+    public OrderValidationResult getValidationResult() {
+        return validationResult;
+    }
+
+    // Formatted on demand, a rejection only carries its error code and arguments until then
+    public String getRejectionReason() {
+        return validationResult.getMessage();
+    }
+}
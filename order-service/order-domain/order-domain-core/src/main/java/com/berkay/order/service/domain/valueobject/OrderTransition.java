@@ -0,0 +1,51 @@
+package com.berkay.order.service.domain.valueobject;
+
+import com.berkay.domain.valueobject.OrderStatus;
+
+// Saga transitions of an order. Allowed moves are kept in a table indexed by transition and current
+// status ordinals, so checking a transition is a single array read.
+public enum OrderTransition {
+    PAY("Order is not in correct state for payment"),
+    APPROVE("Order is not in correct state for approval"),
+    // initCancel comes after payment issue
+    INIT_CANCEL("Order is not in correct state for initCancel operation!"),
+    // cancel comes after cancelling, or in pending state before attempting to pay
+    CANCEL("Order is not in correct state for cancel operation!");
+
+    private static final OrderStatus[][] TRANSITIONS = new OrderStatus[values().length][OrderStatus.values().length];
+
+    static {
+        allow(PAY, OrderStatus.PENDING, OrderStatus.PAID);
+        allow(APPROVE, OrderStatus.PAID, OrderStatus.APPROVED);
+        allow(INIT_CANCEL, OrderStatus.PAID, OrderStatus.CANCELLING);
+        allow(CANCEL, OrderStatus.CANCELLING, OrderStatus.CANCELLED);
+        allow(CANCEL, OrderStatus.PENDING, OrderStatus.CANCELLED);
+    }
+
+    private final String invalidStateMessage;
+
+    OrderTransition(String invalidStateMessage) {
+        this.invalidStateMessage = invalidStateMessage;
+    }
+
+    // Returns the status the order moves to, or null if the transition isn't allowed from the given status
+    public OrderStatus targetStatus(OrderStatus currentStatus) {
+        return currentStatus == null ? null : TRANSITIONS[ordinal()][currentStatus.ordinal()];
+    }
+
+    public boolean isAllowedFrom(OrderStatus currentStatus) {
+        return targetStatus(currentStatus) != null;
+    }
+
+    public boolean recordsFailureMessages() {
+        return this == INIT_CANCEL || this == CANCEL;
+    }
+
+    public String getInvalidStateMessage() {
+        return invalidStateMessage;
+    }
+
+    private static void allow(OrderTransition transition, OrderStatus from, OrderStatus to) {
+        TRANSITIONS[transition.ordinal()][from.ordinal()] = to;
+    }
+}
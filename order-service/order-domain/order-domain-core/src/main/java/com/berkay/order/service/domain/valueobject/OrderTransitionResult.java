@@ -0,0 +1,37 @@
+package com.berkay.order.service.domain.valueobject;
+
+import com.berkay.domain.valueobject.OrderStatus;
+import com.berkay.order.service.domain.entity.Order;
+import com.berkay.order.service.domain.event.OrderEvent;
+
+// Outcome of applying a transition to one order in a bulk call
+public class OrderTransitionResult {
+    private final Order order;
+    private final OrderStatus previousStatus;
+    private final boolean applied;
+    private final OrderEvent orderEvent;
+
+    public OrderTransitionResult(Order order, OrderStatus previousStatus, boolean applied, OrderEvent orderEvent) {
+        this.order = order;
+        this.previousStatus = previousStatus;
+        this.applied = applied;
+        this.orderEvent = orderEvent;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    // Event to publish for the applied transition, null if the transition has no event or wasn't applied
+    public OrderEvent getOrderEvent() {
+        return orderEvent;
+    }
+}
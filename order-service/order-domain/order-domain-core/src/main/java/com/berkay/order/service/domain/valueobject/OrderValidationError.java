@@ -0,0 +1,30 @@
+package com.berkay.order.service.domain.valueobject;
+
+public enum OrderValidationError {
+    INVALID_INITIAL_STATE("Order is not in correct state for initialization"),
+    TOTAL_PRICE_NOT_POSITIVE("Total price must be greater than zero!"),
+    TOTAL_PRICE_MISMATCH("Total price (%s) is not equal to order items total (%s)!"),
+    ITEMS_TOTAL_OUT_OF_RANGE("Order items total is out of range!"),
+    ITEM_PRICE_INVALID("Order item price: %s is not valid for product %s"),
+    RESTAURANT_NOT_FOUND("Could not find restaurant with id: %s"),
+    RESTAURANT_NOT_ACTIVE("Restaurant with id %s is currently not active"),
+    PRODUCT_NOT_AVAILABLE("Product with id %s is not available in restaurant %s"),
+    ORDER_NOT_VALID("Order is not valid: %s");
+
+    private final String messageTemplate;
+    // Errors without arguments share one preallocated result (and exception)
+    private final OrderValidationResult constantResult;
+
+    OrderValidationError(String messageTemplate) {
+        this.messageTemplate = messageTemplate;
+        this.constantResult = messageTemplate.contains("%s") ? null : new OrderValidationResult(this, null, null);
+    }
+
+    public String getMessageTemplate() {
+        return messageTemplate;
+    }
+
+    OrderValidationResult getConstantResult() {
+        return constantResult;
+    }
+}
@@ -0,0 +1,65 @@
+package com.berkay.order.service.domain.valueobject;
+
+import com.berkay.domain.valueobject.Money;
+import com.berkay.order.service.domain.exception.OrderValidationException;
+
+// Result of a validation check. A failure only keeps its error code and raw arguments, the message
+// is formatted on demand. Successful checks all return the shared VALID instance.
+public final class OrderValidationResult {
+
+    public static final OrderValidationResult VALID = new OrderValidationResult(null, null, null);
+
+    private final OrderValidationError error;
+    private final Object firstArgument;
+    private final Object secondArgument;
+    private final OrderValidationException exception;
+
+    OrderValidationResult(OrderValidationError error, Object firstArgument, Object secondArgument) {
+        this.error = error;
+        this.firstArgument = firstArgument;
+        this.secondArgument = secondArgument;
+        // Results of argument-less errors are shared, so their exception is preallocated once as well
+        this.exception = error != null && firstArgument == null ? new OrderValidationException(this) : null;
+    }
+
+    public static OrderValidationResult failure(OrderValidationError error) {
+        return error.getConstantResult() != null ? error.getConstantResult() : new OrderValidationResult(error, null, null);
+    }
+
+    public static OrderValidationResult failure(OrderValidationError error, Object argument) {
+        return new OrderValidationResult(error, argument, null);
+    }
+
+    public static OrderValidationResult failure(OrderValidationError error, Object firstArgument, Object secondArgument) {
+        return new OrderValidationResult(error, firstArgument, secondArgument);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+
+    public OrderValidationError getError() {
+        return error;
+    }
+
+    public String getMessage() {
+        if (error == null) {
+            return null;
+        }
+        return String.format(error.getMessageTemplate(), format(firstArgument), format(secondArgument));
+    }
+
+    public OrderValidationException toException() {
+        return exception != null ? exception : new OrderValidationException(this);
+    }
+
+    public void throwIfInvalid() {
+        if (error != null) {
+            throw toException();
+        }
+    }
+
+    private static Object format(Object argument) {
+        return argument instanceof Money money ? money.getAmount() : argument;
+    }
+}